@@ -0,0 +1,66 @@
+package com.example.coder.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Runs JMH with the given options and, unless a result
+ * format or file is passed, writes JSON results to {@code results/<label>.json}. The label is
+ * {@code -Dbenchmark.label}, else the short git commit, else a timestamp, so runs of two
+ * commits can be compared side by side (e.g. with jmh.morethan.io).
+ */
+public final class BenchmarkMain {
+
+    private static final Path RESULTS_DIR = Path.of("results");
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf") && !options.contains("-rff")) {
+            Files.createDirectories(RESULTS_DIR);
+            Path resultFile = RESULTS_DIR.resolve(label() + ".json");
+            options.addAll(List.of("-rf", "json", "-rff", resultFile.toString()));
+            System.out.println("Writing benchmark results to " + resultFile.toAbsolutePath());
+        }
+        org.openjdk.jmh.Main.main(options.toArray(String[]::new));
+    }
+
+    private static String label() {
+        String label = System.getProperty("benchmark.label");
+        if (label != null && !label.isBlank()) {
+            return label;
+        }
+        String commit = gitCommit();
+        return commit != null ? commit : LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    }
+
+    private static String gitCommit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            String output;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                output = reader.readLine();
+            }
+            return process.waitFor() == 0 && output != null && !output.isBlank() ? output.trim() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
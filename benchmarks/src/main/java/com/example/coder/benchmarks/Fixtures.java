@@ -0,0 +1,76 @@
+package com.example.coder.benchmarks;
+
+import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.model.Users;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representative entities shared by the benchmarks, sized like typical catalog rows.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static Exercises exercise() {
+        Exercises exercise = new Exercises();
+        exercise.setId(42L);
+        exercise.setTitle("Shortest path in a weighted grid");
+        exercise.setDescription("Given an n x m grid of non-negative weights, print the minimum cost of a path "
+                .repeat(8));
+        exercise.setDifficulty(Exercises.Difficulty.MEDIUM);
+        exercise.setSampleInput("3 3\n1 3 1\n1 5 1\n4 2 1\n");
+        exercise.setSampleOutput("7\n");
+        exercise.setTopics("Graphs, Dynamic Programming, Shortest Path, Dijkstra, Grids");
+        exercise.setCreatedAt(LocalDateTime.of(2025, 1, 15, 10, 30));
+        return exercise;
+    }
+
+    public static Submission submission() {
+        Users user = new Users();
+        user.setId(7L);
+        user.setUsername("alice");
+
+        Languages language = new Languages();
+        language.setId(3L);
+        language.setName("Python 3");
+        language.setCode(71);
+
+        Submission submission = new Submission();
+        submission.setId(1001L);
+        submission.setUser(user);
+        submission.setExercise(exercise());
+        submission.setLanguage(language);
+        submission.setSourceCode("import sys\n" + "print(sum(map(int, sys.stdin.read().split())))\n".repeat(20));
+        submission.setStatus(Submission.Status.SUCCESS);
+        submission.setStdout("7\n");
+        submission.setTime(0.042);
+        submission.setCreatedAt(LocalDateTime.of(2025, 1, 15, 11, 0));
+        return submission;
+    }
+
+    /**
+     * The response body for {@link #submission()}, as the service maps it.
+     */
+    public static SubmissionResponseDTO submissionResponse() {
+        Submission submission = submission();
+        SubmissionResponseDTO dto = new SubmissionResponseDTO();
+        dto.setId(submission.getId());
+        dto.setUserId(submission.getUser().getId());
+        dto.setUsername(submission.getUser().getUsername());
+        dto.setExerciseId(submission.getExercise().getId());
+        dto.setExerciseTitle(submission.getExercise().getTitle());
+        dto.setLanguageId(submission.getLanguage().getId());
+        dto.setLanguageName(submission.getLanguage().getName());
+        dto.setSourceCode(submission.getSourceCode());
+        dto.setStatus(submission.getStatus().name());
+        dto.setStdout(submission.getStdout());
+        dto.setTime(submission.getTime());
+        dto.setCreatedAt(submission.getCreatedAt().toString());
+        return dto;
+    }
+}
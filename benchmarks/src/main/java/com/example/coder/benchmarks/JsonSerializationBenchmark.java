@@ -0,0 +1,55 @@
+package com.example.coder.benchmarks;
+
+import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.model.Exercises;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body serialization with the mapper settings Spring Boot applies by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter writer;
+    private Exercises exercise;
+    private SubmissionResponseDTO submission;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        exercise = Fixtures.exercise();
+        submission = Fixtures.submissionResponse();
+    }
+
+    @Benchmark
+    public byte[] exercise() throws Exception {
+        return writer.writeValueAsBytes(exercise);
+    }
+
+    @Benchmark
+    public byte[] submissionResponse() throws Exception {
+        return writer.writeValueAsBytes(submission);
+    }
+}
@@ -0,0 +1,496 @@
+package com.example.coder.loadsim;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.example.coder.CoderApplication;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Users;
+import com.example.coder.repo.LanguagesRepo;
+import com.example.coder.repo.UsersRepo;
+import com.example.coder.services.ExerciseBulkService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays contest-day traffic against a fully booted application on one machine, with no
+ * network beyond loopback: an embedded MariaDB (the application uses MariaDB-specific SQL, so
+ * H2 would not run it), a local {@link FakeJudge0} and the real Judge0 client, dispatcher and
+ * write-behind in between.
+ * <p>
+ * The run seeds users, a language and exercises, then fires a login storm (every user logs in
+ * at once) followed by a timed closed-loop phase in which each client repeatedly picks an
+ * operation from the traffic mix: logging in again, browsing the catalog, submitting, or
+ * polling one of its pending submissions. It prints throughput and latency percentiles per
+ * operation, SQL statements per endpoint (see {@link QueryCounter}) and the final verdicts.
+ * <p>
+ * Settings are system properties ({@code -Dloadsim.users=500}); other arguments are passed to
+ * the application, e.g. {@code --judge.workers=16}.
+ * <ul>
+ *   <li>{@code loadsim.users} (200), {@code loadsim.clients} (50), {@code loadsim.exercises} (200)</li>
+ *   <li>{@code loadsim.duration-seconds} (60), {@code loadsim.think-time-ms} (0)</li>
+ *   <li>{@code loadsim.mix} ({@code login:5,browse:55,submit:15,poll:25}), {@code loadsim.accept-ratio} (0.5)</li>
+ *   <li>{@code loadsim.judge-latency-ms} (200), {@code loadsim.drain-seconds} (30)</li>
+ *   <li>{@code loadsim.jdbc-url}: use an existing local MariaDB instead of the embedded one,
+ *       with {@code loadsim.jdbc-username} (root) and {@code loadsim.jdbc-password}</li>
+ * </ul>
+ */
+public final class ContestLoadSimulator {
+
+    private static final String PASSWORD = "contest-password";
+    private static final int PYTHON = 71;
+    private static final String[] WORDS = {"graph", "array", "string", "tree", "prime", "matrix", "interval", "path"};
+    private static final List<String> BROWSE_OPERATIONS = List.of("catalog page", "exercise detail", "search", "topic counts");
+
+    private final Settings settings;
+    private final PrintStream out = System.out;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private URI baseUri;
+    private long languageId;
+    private long[] exerciseIds;
+    private String[] expectedOutputs;
+    private String[] usernames;
+    private String[] tokens;
+    private long[] userIds;
+
+    private ContestLoadSimulator(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new ContestLoadSimulator(Settings.fromSystemProperties()).run(args);
+    }
+
+    private void run(String[] args) throws Exception {
+        DB db = null;
+        String jdbcUrl = settings.jdbcUrl;
+        if (jdbcUrl.isEmpty()) {
+            DBConfigurationBuilder dbConfigBuilder = DBConfigurationBuilder.newBuilder().setPort(0);
+            if ("root".equals(System.getProperty("user.name"))) {
+                // mariadbd refuses to run as root unless told to, e.g. in containers
+                dbConfigBuilder.addArg("--user=root");
+            }
+            DBConfiguration dbConfig = dbConfigBuilder.build();
+            db = DB.newEmbeddedDB(dbConfig);
+            db.start();
+            // Created by the driver rather than DB.createDB, which needs the mariadb command-line client
+            jdbcUrl = "jdbc:mariadb://localhost:" + dbConfig.getPort() + "/coder?createDatabaseIfNotExist=true";
+        }
+
+        try (FakeJudge0 judge = new FakeJudge0(settings.judgeLatencyMs, 16);
+             ConfigurableApplicationContext app = startApplication(jdbcUrl, judge.baseUrl(), args)) {
+            baseUri = URI.create("http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort());
+            seed(app);
+            QueryCounter.reset();
+
+            out.printf("%nLoad simulation: %d users, %d clients, %d exercises, judge latency %d ms%n",
+                    settings.users, settings.clients, settings.exercises, settings.judgeLatencyMs);
+
+            long start = System.nanoTime();
+            LatencyRecorder storm = loginStorm();
+            double stormSeconds = (System.nanoTime() - start) / 1e9;
+            out.printf("%nLogin storm (%d users at once, %.1f s)%n", settings.users, stormSeconds);
+            storm.print(out, stormSeconds);
+
+            start = System.nanoTime();
+            LatencyRecorder mixed = mixedTraffic();
+            double mixedSeconds = (System.nanoTime() - start) / 1e9;
+            out.printf("%nMixed traffic (%s, %.1f s, %.0f req/s)%n", settings.mix, mixedSeconds, mixed.count() / mixedSeconds);
+            mixed.print(out, mixedSeconds);
+
+            JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+            double drainSeconds = drainJudgeQueue(jdbc);
+            printQueryCounts();
+            printVerdicts(jdbc, drainSeconds, judge.requestCount());
+        } finally {
+            if (db != null) {
+                db.stop();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startApplication(String jdbcUrl, String judgeUrl, String[] args) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", settings.jdbcUsername);
+        properties.put("spring.datasource.password", settings.jdbcPassword);
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("judge.client", "judge0");
+        properties.put("judge.judge0.url", judgeUrl);
+        // Every simulated client shares one address; measure the pipeline, not the rate limits
+        properties.put("submission.admission.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("logging.level.com.example.coder", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+
+        // Spring joins repeated options instead of letting the last one win, so merge first
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                properties.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                appArgs.add(arg);
+            }
+        }
+        properties.forEach((name, value) -> appArgs.add("--" + name + "=" + value));
+
+        return new SpringApplicationBuilder(CoderApplication.class, LoadSimConfiguration.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run(appArgs.toArray(String[]::new));
+    }
+
+    /**
+     * Seeds through the application's own services and repositories. Names carry a run id, so
+     * repeated runs against an external database do not collide.
+     */
+    private void seed(ConfigurableApplicationContext app) {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        Languages python = new Languages();
+        python.setName("Python 3 (" + runId + ")");
+        python.setCode(PYTHON);
+        languageId = app.getBean(LanguagesRepo.class).save(python).getId();
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < settings.exercises; i++) {
+            ObjectNode exercise = mapper.createObjectNode()
+                    .put("title", "Contest " + runId + " problem " + i + ": " + WORDS[i % WORDS.length] + " queries")
+                    .put("description", ("Answer the " + WORDS[(i * 3) % WORDS.length] + " queries. ").repeat(20))
+                    .put("difficulty", i % 3 == 0 ? "easy" : i % 3 == 1 ? "medium" : "hard")
+                    .put("sampleInput", Integer.toString(i))
+                    .put("sampleOutput", "answer-" + runId + "-" + i)
+                    .put("topics", WORDS[i % WORDS.length] + ", " + WORDS[(i + 1) % WORDS.length]);
+            ndjson.append(exercise).append('\n');
+        }
+        app.getBean(ExerciseBulkService.class)
+                .importExercises(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+
+        List<Map<String, Object>> exercises = app.getBean(JdbcTemplate.class).queryForList(
+                "SELECT id, sample_output FROM exercises WHERE sample_output LIKE ?", "answer-" + runId + "-%");
+        exerciseIds = new long[exercises.size()];
+        expectedOutputs = new String[exercises.size()];
+        for (int i = 0; i < exercises.size(); i++) {
+            exerciseIds[i] = ((Number) exercises.get(i).get("id")).longValue();
+            expectedOutputs[i] = (String) exercises.get(i).get("sample_output");
+        }
+
+        // Hashing once is enough: every user has the same password
+        String hash = app.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<Users> users = new ArrayList<>(settings.users);
+        usernames = new String[settings.users];
+        for (int i = 0; i < settings.users; i++) {
+            usernames[i] = "c" + i + "-" + runId;
+            Users user = new Users();
+            user.setUsername(usernames[i]);
+            user.setEmail(usernames[i] + "@loadsim.local");
+            user.setPassword(hash);
+            user.setRole(Users.Role.USER);
+            users.add(user);
+        }
+        app.getBean(UsersRepo.class).saveAll(users);
+        tokens = new String[settings.users];
+        userIds = new long[settings.users];
+    }
+
+    private LatencyRecorder loginStorm() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<LatencyRecorder>> results = new ArrayList<>(settings.users);
+            for (int i = 0; i < settings.users; i++) {
+                int user = i;
+                results.add(clients.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    go.await();
+                    login(recorder, user);
+                    return recorder;
+                }));
+            }
+            go.countDown();
+            return merge(results);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private LatencyRecorder mixedTraffic() throws Exception {
+        Mix mix = Mix.parse(settings.mix);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+        ExecutorService clients = Executors.newFixedThreadPool(settings.clients);
+        try {
+            List<Future<LatencyRecorder>> results = new ArrayList<>(settings.clients);
+            for (int c = 0; c < settings.clients; c++) {
+                int user = c % settings.users;
+                results.add(clients.submit(() -> simulateClient(user, mix, deadline)));
+            }
+            return merge(results);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private LatencyRecorder simulateClient(int user, Mix mix, long deadline) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        Deque<Long> pending = new ArrayDeque<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadline) {
+            switch (mix.pick(random)) {
+                case "login" -> login(recorder, user);
+                case "submit" -> submit(recorder, user, random, pending);
+                case "poll" -> {
+                    if (pending.isEmpty()) {
+                        browse(recorder, random);
+                    } else {
+                        poll(recorder, pending);
+                    }
+                }
+                default -> browse(recorder, random);
+            }
+            if (settings.thinkTimeMs > 0) {
+                Thread.sleep(random.nextLong(settings.thinkTimeMs * 2 + 1));
+            }
+        }
+        return recorder;
+    }
+
+    private void login(LatencyRecorder recorder, int user) throws InterruptedException {
+        ObjectNode body = mapper.createObjectNode()
+                .put("username", usernames[user])
+                .put("password", PASSWORD);
+        JsonNode response = call(recorder, "login", post("/api/auth/login", body, null));
+        if (response != null) {
+            tokens[user] = response.path("token").asText();
+            userIds[user] = response.path("userId").asLong();
+        }
+    }
+
+    private void browse(LatencyRecorder recorder, ThreadLocalRandom random) throws InterruptedException {
+        String operation = BROWSE_OPERATIONS.get(random.nextInt(BROWSE_OPERATIONS.size()));
+        String path = switch (operation) {
+            case "catalog page" -> "/api/exercises/paged?size=20&page=" + random.nextInt(Math.max(1, exerciseIds.length / 20));
+            case "exercise detail" -> "/api/exercises/" + exerciseIds[random.nextInt(exerciseIds.length)];
+            case "search" -> "/api/exercises/search/paged?keyword=" + WORDS[random.nextInt(WORDS.length)];
+            default -> "/api/exercises/topics/counts";
+        };
+        call(recorder, operation, get(path, null));
+    }
+
+    private void submit(LatencyRecorder recorder, int user, ThreadLocalRandom random, Deque<Long> pending)
+            throws InterruptedException {
+        int exercise = random.nextInt(exerciseIds.length);
+        String output = random.nextDouble() < settings.acceptRatio ? expectedOutputs[exercise] : "wrong";
+        ObjectNode body = mapper.createObjectNode()
+                .put("userId", userIds[user])
+                .put("exerciseId", exerciseIds[exercise])
+                .put("languageId", languageId)
+                .put("sourceCode", "print('" + output + "')\n");
+        JsonNode response = call(recorder, "submit", post("/api/submissions", body, tokens[user]));
+        if (response != null && response.hasNonNull("id")) {
+            pending.addLast(response.get("id").asLong());
+        }
+    }
+
+    private void poll(LatencyRecorder recorder, Deque<Long> pending) throws InterruptedException {
+        Long id = pending.pollFirst();
+        JsonNode response = call(recorder, "poll status", get("/api/submissions/" + id, null));
+        if (response == null || "PENDING".equals(response.path("status").asText())) {
+            pending.addLast(id);
+        }
+    }
+
+    /**
+     * Sends a request and records its latency. Returns the parsed body of a successful
+     * response, otherwise null.
+     */
+    private JsonNode call(LatencyRecorder recorder, String operation, HttpRequest request) throws InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.record(operation, System.nanoTime() - start, false);
+            return null;
+        }
+        boolean ok = response.statusCode() < 400;
+        recorder.record(operation, System.nanoTime() - start, ok);
+        if (!ok || response.body().isEmpty()) {
+            return null;
+        }
+        try {
+            return mapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+        return withToken(builder, token).build();
+    }
+
+    private HttpRequest post(String path, JsonNode body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+        return withToken(builder, token).build();
+    }
+
+    private static HttpRequest.Builder withToken(HttpRequest.Builder builder, String token) {
+        return token != null ? builder.header("Authorization", "Bearer " + token) : builder;
+    }
+
+    private static LatencyRecorder merge(List<Future<LatencyRecorder>> results) throws Exception {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (Future<LatencyRecorder> result : results) {
+            merged.merge(result.get());
+        }
+        return merged;
+    }
+
+    /**
+     * Waits until no submission is PENDING or the drain timeout passes. Returns the seconds
+     * waited.
+     */
+    private double drainJudgeQueue(JdbcTemplate jdbc) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(settings.drainSeconds);
+        while (System.nanoTime() < deadline && pendingCount(jdbc) > 0) {
+            Thread.sleep(500);
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static long pendingCount(JdbcTemplate jdbc) {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM submissions WHERE status = 'PENDING'", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private void printQueryCounts() {
+        out.printf("%nSQL statements per endpoint%n");
+        out.printf("%-50s %9s %9s %9s%n", "endpoint", "requests", "queries", "per req");
+        QueryCounter.byEndpoint().forEach((endpoint, counts) -> out.printf("%-50s %9d %9d %9.2f%n",
+                endpoint, counts.requests(), counts.queries(),
+                counts.requests() == 0 ? 0.0 : (double) counts.queries() / counts.requests()));
+        out.printf("%-50s %9s %9d%n", "background (judge, write-behind, async, jobs)", "", QueryCounter.background());
+    }
+
+    private void printVerdicts(JdbcTemplate jdbc, double drainSeconds, long judgeRequests) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        jdbc.query("SELECT status, COUNT(*) FROM submissions GROUP BY status ORDER BY status", (ResultSet row) -> {
+            byStatus.put(row.getString(1), row.getLong(2));
+        });
+        out.printf("%nSubmissions by status after %.1f s drain: %s%n", drainSeconds, byStatus);
+        out.printf("Judge0 HTTP requests: %d%n", judgeRequests);
+    }
+
+    /**
+     * Weighted operation choice, e.g. {@code login:5,browse:55,submit:15,poll:25}.
+     */
+    private static final class Mix {
+        private final String[] operations;
+        private final int[] cumulativeWeights;
+
+        private Mix(String[] operations, int[] cumulativeWeights) {
+            this.operations = operations;
+            this.cumulativeWeights = cumulativeWeights;
+        }
+
+        static Mix parse(String spec) {
+            String[] entries = spec.split(",");
+            String[] operations = new String[entries.length];
+            int[] cumulative = new int[entries.length];
+            int total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] parts = entries[i].trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("loadsim.mix entries must be operation:weight, got " + entries[i]);
+                }
+                operations[i] = parts[0].trim();
+                total += Integer.parseInt(parts[1].trim());
+                cumulative[i] = total;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("loadsim.mix weights must add up to more than 0");
+            }
+            return new Mix(operations, cumulative);
+        }
+
+        String pick(ThreadLocalRandom random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+
+    private record Settings(
+            int users,
+            int clients,
+            int exercises,
+            int durationSeconds,
+            long thinkTimeMs,
+            String mix,
+            double acceptRatio,
+            long judgeLatencyMs,
+            int drainSeconds,
+            String jdbcUrl,
+            String jdbcUsername,
+            String jdbcPassword) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("loadsim.users", 200),
+                    Integer.getInteger("loadsim.clients", 50),
+                    Integer.getInteger("loadsim.exercises", 200),
+                    Integer.getInteger("loadsim.duration-seconds", 60),
+                    Long.getLong("loadsim.think-time-ms", 0),
+                    System.getProperty("loadsim.mix", "login:5,browse:55,submit:15,poll:25"),
+                    Double.parseDouble(System.getProperty("loadsim.accept-ratio", "0.5")),
+                    Long.getLong("loadsim.judge-latency-ms", 200),
+                    Integer.getInteger("loadsim.drain-seconds", 30),
+                    System.getProperty("loadsim.jdbc-url", ""),
+                    System.getProperty("loadsim.jdbc-username", "root"),
+                    System.getProperty("loadsim.jdbc-password", ""));
+        }
+    }
+}
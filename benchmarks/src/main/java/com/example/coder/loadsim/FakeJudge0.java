@@ -0,0 +1,156 @@
+package com.example.coder.loadsim;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Judge0 REST API on the loopback interface: single submissions with
+ * {@code wait=true} and the batch create/poll endpoints. Every submission takes
+ * {@code latencyMs} to judge; until then batch polls report it as processing. A submission is
+ * accepted when its source contains the expected output.
+ */
+class FakeJudge0 implements AutoCloseable {
+
+    private static final int PROCESSING = 2;
+    private static final int ACCEPTED = 3;
+    private static final int WRONG_ANSWER = 4;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Verdict> verdicts = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final long latencyNanos;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    FakeJudge0(long latencyMs, int threads) throws IOException {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/submissions", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+
+        if ("POST".equals(method) && path.equals("/submissions/batch")) {
+            JsonNode body = mapper.readTree(exchange.getRequestBody());
+            ArrayNode created = mapper.createArrayNode();
+            for (JsonNode submission : body.path("submissions")) {
+                String token = UUID.randomUUID().toString();
+                verdicts.put(token, new Verdict(submission, System.nanoTime() + latencyNanos));
+                created.addObject().put("token", token);
+            }
+            respond(exchange, 201, created);
+        } else if ("GET".equals(method) && path.equals("/submissions/batch")) {
+            ArrayNode submissions = mapper.createArrayNode();
+            long now = System.nanoTime();
+            for (String token : queryParam(exchange, "tokens").split(",")) {
+                Verdict verdict = verdicts.get(token);
+                if (verdict == null) {
+                    submissions.addNull();
+                } else if (now < verdict.readyAt) {
+                    submissions.add(result(token, PROCESSING, ""));
+                } else {
+                    verdicts.remove(token);
+                    submissions.add(verdict.toResult(token));
+                }
+            }
+            ObjectNode response = mapper.createObjectNode();
+            response.set("submissions", submissions);
+            respond(exchange, 200, response);
+        } else if ("POST".equals(method) && path.equals("/submissions")) {
+            JsonNode body = mapper.readTree(exchange.getRequestBody());
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 201, new Verdict(body, 0).toResult(UUID.randomUUID().toString()));
+        } else {
+            respond(exchange, 404, mapper.createObjectNode().put("error", "not found"));
+        }
+    }
+
+    private ObjectNode result(String token, int statusId, String stdout) {
+        ObjectNode result = mapper.createObjectNode();
+        result.put("token", token);
+        result.put("stdout", stdout);
+        result.put("time", "0.010");
+        result.putObject("status").put("id", statusId);
+        return result;
+    }
+
+    private String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private final class Verdict {
+        private final boolean accepted;
+        private final String expected;
+        private final long readyAt;
+
+        Verdict(JsonNode submission, long readyAt) {
+            this.expected = submission.path("expected_output").asText("").trim();
+            this.accepted = submission.path("source_code").asText("").contains(expected);
+            this.readyAt = readyAt;
+        }
+
+        ObjectNode toResult(String token) {
+            return result(token, accepted ? ACCEPTED : WRONG_ANSWER, accepted ? expected : "");
+        }
+    }
+}
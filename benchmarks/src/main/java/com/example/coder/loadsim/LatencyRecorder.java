@@ -0,0 +1,75 @@
+package com.example.coder.loadsim;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency samples per operation. Each client thread records into its own instance; the
+ * instances are merged once the run is over, so recording needs no synchronization.
+ */
+class LatencyRecorder {
+
+    private final Map<String, Samples> byOperation = new LinkedHashMap<>();
+
+    void record(String operation, long nanos, boolean ok) {
+        Samples samples = byOperation.computeIfAbsent(operation, o -> new Samples());
+        samples.add(nanos);
+        if (!ok) {
+            samples.errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        other.byOperation.forEach((operation, samples) ->
+                byOperation.computeIfAbsent(operation, o -> new Samples()).addAll(samples));
+    }
+
+    long count() {
+        return byOperation.values().stream().mapToLong(s -> s.size).sum();
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        byOperation.forEach((operation, samples) -> {
+            long[] sorted = Arrays.copyOf(samples.values, samples.size);
+            Arrays.sort(sorted);
+            out.printf("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation, samples.size, samples.errors, samples.size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static final class Samples {
+        private long[] values = new long[256];
+        private int size;
+        private int errors;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.coder.loadsim;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Extra beans for the simulated application. Passed to the application builder as a source
+ * rather than annotated, so component scanning of the benchmarks jar does not pick it up.
+ */
+class LoadSimConfiguration {
+
+    @Bean
+    FilterRegistrationBean<QueryCounter.EndpointFilter> queryCountingFilter() {
+        FilterRegistrationBean<QueryCounter.EndpointFilter> registration =
+                new FilterRegistrationBean<>(new QueryCounter.EndpointFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Counts statements for every DataSource user, not just Hibernate.
+     */
+    @Bean
+    static BeanPostProcessor queryCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? QueryCounter.counting(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.coder.loadsim;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements executed through the application's DataSource, attributed to the
+ * endpoint whose request thread issued them. Counting at the JDBC level covers Hibernate,
+ * JdbcTemplate and native batches alike. Statements from other threads (judge workers, the
+ * verdict writer, async continuations, scheduled jobs) are counted as background. A JDBC batch
+ * is one round trip, so it counts as one statement.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> CURRENT_REQUEST = new ThreadLocal<>();
+    private static final Map<String, EndpointCounts> BY_ENDPOINT = new ConcurrentHashMap<>();
+    private static final LongAdder BACKGROUND = new LongAdder();
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTIONS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private QueryCounter() {
+    }
+
+    private static void record() {
+        int[] count = CURRENT_REQUEST.get();
+        if (count != null) {
+            count[0]++;
+        } else {
+            BACKGROUND.increment();
+        }
+    }
+
+    public static void reset() {
+        BY_ENDPOINT.clear();
+        BACKGROUND.reset();
+    }
+
+    /**
+     * Counts per endpoint ({@code METHOD /pattern}), sorted by endpoint.
+     */
+    public static Map<String, EndpointCounts> byEndpoint() {
+        return new TreeMap<>(BY_ENDPOINT);
+    }
+
+    public static long background() {
+        return BACKGROUND.sum();
+    }
+
+    /**
+     * Wraps a DataSource so that every statement executed on its connections is counted.
+     */
+    public static DataSource counting(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            @NonNull
+            public Connection getConnection() throws SQLException {
+                return countingConnection(super.getConnection());
+            }
+
+            @Override
+            @NonNull
+            public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+                return countingConnection(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) ->
+                STATEMENT_FACTORIES.contains(method.getName())
+                        ? proxy(method.getReturnType(), result, (executed, outcome) -> {
+                            if (EXECUTIONS.contains(executed.getName())) {
+                                record();
+                            }
+                            return outcome;
+                        })
+                        : result);
+    }
+
+    /**
+     * Proxies {@code type} over {@code target}, passing each call's result through {@code after}.
+     * Only Statement and its subinterfaces, and Connection, are proxied.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, ResultHandler after) {
+        if (!Connection.class.equals(type) && !Statement.class.isAssignableFrom(type)) {
+            return (T) target;
+        }
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return after.apply(method, result);
+        });
+    }
+
+    private interface ResultHandler {
+        Object apply(Method method, Object result);
+    }
+
+    public static final class EndpointCounts {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public long queries() {
+            return queries.sum();
+        }
+    }
+
+    /**
+     * Opens the per-request count. Registered ahead of the security filters, so queries made
+     * while authenticating are part of the request.
+     */
+    public static class EndpointFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(
+                @NonNull HttpServletRequest request,
+                @NonNull HttpServletResponse response,
+                @NonNull FilterChain filterChain) throws ServletException, IOException {
+            int[] count = new int[1];
+            CURRENT_REQUEST.set(count);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                CURRENT_REQUEST.remove();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+                EndpointCounts counts = BY_ENDPOINT.computeIfAbsent(endpoint, e -> new EndpointCounts());
+                counts.requests.increment();
+                counts.queries.add(count[0]);
+            }
+        }
+    }
+}
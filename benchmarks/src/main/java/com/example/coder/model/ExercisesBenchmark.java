@@ -0,0 +1,62 @@
+package com.example.coder.model;
+
+import com.example.coder.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Topic string parsing on {@link Exercises} and {@link Exercises.Difficulty#fromString}, both
+ * called per row when listings are filtered or request bodies are bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExercisesBenchmark {
+
+    private Exercises exercise;
+    private String presentTopic;
+    private String missingTopic;
+    private String difficulty;
+
+    @Setup
+    public void setUp() {
+        exercise = Fixtures.exercise();
+        presentTopic = " dijkstra ";
+        missingTopic = "Segment Tree";
+        difficulty = "medium";
+    }
+
+    @Benchmark
+    public List<String> getTopicsList() {
+        return exercise.getTopicsList();
+    }
+
+    @Benchmark
+    public boolean containsTopicHit() {
+        return exercise.containsTopic(presentTopic);
+    }
+
+    @Benchmark
+    public boolean containsTopicMiss() {
+        return exercise.containsTopic(missingTopic);
+    }
+
+    @Benchmark
+    public Exercises.Difficulty difficultyFromString() {
+        return Exercises.Difficulty.fromString(difficulty);
+    }
+}
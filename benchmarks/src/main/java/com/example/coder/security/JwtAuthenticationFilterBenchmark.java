@@ -0,0 +1,110 @@
+package com.example.coder.security;
+
+import com.example.coder.config.CacheConfig;
+import com.example.coder.model.Users;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtAuthenticationFilter#doFilterInternal}: a request without a
+ * token, a valid token resolved through the principal cache, a valid token authorized from
+ * its claims, and a token with a bad signature. The filter's error log is switched off in
+ * {@code logback.xml}, so the last case measures rejection without console output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter cachedPrincipalFilter;
+    private JwtAuthenticationFilter statelessFilter;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletRequest tokenRequest;
+    private MockHttpServletRequest claimsTokenRequest;
+    private MockHttpServletRequest tamperedRequest;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(JwtUtilBenchmark.SECRET, "k1", "", 3_600_000L);
+        UserPrincipal principal = new UserPrincipal(7L, "alice", "{noop}secret", Users.Role.USER, 0);
+        UserDetailsService userDetailsService = username -> principal;
+        PrincipalCache principalCache = new PrincipalCache(userDetailsService,
+                new CacheConfig().cacheManager(1000, 300, 10_000, 60, 1_000_000, 30));
+        TokenVersionRegistry tokenVersionRegistry = new TokenVersionRegistry(null, false);
+        tokenVersionRegistry.update(principal.getId(), principal.getTokenVersion());
+
+        cachedPrincipalFilter = new JwtAuthenticationFilter(jwtUtil, principalCache, tokenVersionRegistry);
+        statelessFilter = new JwtAuthenticationFilter(jwtUtil, principalCache, tokenVersionRegistry);
+        ReflectionTestUtils.setField(statelessFilter, "statelessClaims", true);
+
+        String token = jwtUtil.generateToken(principal);
+        anonymousRequest = request(null);
+        tokenRequest = request(token);
+        claimsTokenRequest = request(token);
+        tamperedRequest = request(token.substring(0, token.length() - 2) + "xx");
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Authentication noToken() throws Exception {
+        cachedPrincipalFilter.doFilterInternal(anonymousRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication cachedPrincipal() throws Exception {
+        cachedPrincipalFilter.doFilterInternal(tokenRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication statelessClaims() throws Exception {
+        statelessFilter.doFilterInternal(claimsTokenRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication invalidSignature() throws Exception {
+        cachedPrincipalFilter.doFilterInternal(tamperedRequest, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/submissions/1");
+        request.setServletPath("/api/submissions/1");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.coder.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generate/validate throughput, including a token signed with a retired key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "mySecretKey123456789012345678901234567890123";
+    private static final String RETIRED = "b2xkLXNlY3JldC1vbGQtc2VjcmV0LW9sZC1zZWNyZXQtMDE=";
+
+    private JwtUtil jwtUtil;
+    private UserDetails user;
+    private String token;
+    private String retiredKeyToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, "k2", "k1:" + RETIRED, 3_600_000L);
+        user = User.withUsername("alice").password("x").roles("USER").build();
+        token = jwtUtil.generateToken(user);
+        retiredKeyToken = new JwtUtil(RETIRED, "k1", "", 3_600_000L).generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String validate() {
+        return jwtUtil.parseClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public String validateRetiredKey() {
+        return jwtUtil.parseClaims(retiredKeyToken).getSubject();
+    }
+}
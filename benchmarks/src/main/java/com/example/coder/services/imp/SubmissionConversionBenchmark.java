@@ -0,0 +1,60 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.benchmarks.Fixtures;
+import com.example.coder.model.Submission;
+import com.example.coder.repo.SubmissionRepo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response DTO mapping done for every submission read, measured through
+ * getSubmissionById with a repository stub that returns a loaded entity. The stub's
+ * dispatch is included in the score but is small next to the mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubmissionConversionBenchmark {
+
+    private SubmissionServiceImpl service;
+    private Long id;
+
+    @Setup
+    public void setUp() {
+        Submission submission = Fixtures.submission();
+        id = submission.getId();
+        Optional<Submission> found = Optional.of(submission);
+        SubmissionRepo submissionRepo = (SubmissionRepo) Proxy.newProxyInstance(
+                SubmissionRepo.class.getClassLoader(), new Class<?>[]{SubmissionRepo.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findDetailById")) {
+                        return found;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        // Only the repository is used on this path
+        service = new SubmissionServiceImpl(submissionRepo, null, null, null, null, null, null,
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public SubmissionResponseDTO getSubmissionById() {
+        return service.getSubmissionById(id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.coder.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BulkImportResultDTO {
+    private int received;
+    private int imported;
+    private List<ItemError> errors = new ArrayList<>();
+
+    public void addError(int index, String title, String message) {
+        errors.add(new ItemError(index, title, message));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        // 0-based position in the uploaded payload
+        private int index;
+        private String title;
+        private String message;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.coder.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+    // Only filled when the caller asks for it; counting is what makes deep offset pages slow
+    private Long totalElements;
+}
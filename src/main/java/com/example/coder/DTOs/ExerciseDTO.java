@@ -0,0 +1,41 @@
+package com.example.coder.DTOs;
+
+import com.example.coder.model.Exercises;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable copy of an exercise, safe to keep in a cache and hand to concurrent readers.
+ * Serializes to the same JSON as the entity.
+ */
+@Value
+public class ExerciseDTO {
+    Long id;
+    String title;
+    String description;
+    Exercises.Difficulty difficulty;
+    String sampleInput;
+    String sampleOutput;
+    String topics;
+    List<String> topicsList;
+    LocalDateTime createdAt;
+
+    public static ExerciseDTO from(Exercises exercise) {
+        return new ExerciseDTO(
+                exercise.getId(),
+                exercise.getTitle(),
+                exercise.getDescription(),
+                exercise.getDifficulty(),
+                exercise.getSampleInput(),
+                exercise.getSampleOutput(),
+                exercise.getTopics(),
+                List.copyOf(exercise.getTopicsList()),
+                exercise.getCreatedAt());
+    }
+
+    public static List<ExerciseDTO> from(List<Exercises> exercises) {
+        return exercises.stream().map(ExerciseDTO::from).toList();
+    }
+}
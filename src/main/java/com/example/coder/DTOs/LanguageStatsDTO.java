@@ -0,0 +1,26 @@
+package com.example.coder.DTOs;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class LanguageStatsDTO {
+    private Long languageId;
+    private String languageName;
+    private long totalSubmissions;
+    private long pending;
+    private long success;
+    private long fail;
+    private long error;
+
+    public LanguageStatsDTO(Long languageId, String languageName, long pending, long success, long fail, long error) {
+        this.languageId = languageId;
+        this.languageName = languageName;
+        this.totalSubmissions = pending + success + fail + error;
+        this.pending = pending;
+        this.success = success;
+        this.fail = fail;
+        this.error = error;
+    }
+}
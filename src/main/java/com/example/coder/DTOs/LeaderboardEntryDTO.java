@@ -0,0 +1,18 @@
+package com.example.coder.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private int rank;
+    private Long userId;
+    private String username;
+    private int solved;
+    // Best time in seconds on an exercise board, total of best times on the global board;
+    // null if the judge reported no time
+    private Double time;
+}
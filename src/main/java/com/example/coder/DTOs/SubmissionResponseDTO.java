@@ -1,21 +1,30 @@
 package com.example.coder.DTOs;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
-public class SubmissionResponseDTO {
-    private Long id;
-    private Long userId;
-    private String username;
-    private Long exerciseId;
-    private String exerciseTitle;
-    private Long languageId;
-    private String languageName;
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class SubmissionResponseDTO extends SubmissionSummaryDTO {
     private String sourceCode;
-    private String status;
     private String stdout;
     private String stderr;
     private String compileOutput;
-    private Double time;
-    private String createdAt;
+
+    public SubmissionResponseDTO(SubmissionSummaryDTO summary) {
+        setId(summary.getId());
+        setUserId(summary.getUserId());
+        setUsername(summary.getUsername());
+        setExerciseId(summary.getExerciseId());
+        setExerciseTitle(summary.getExerciseTitle());
+        setLanguageId(summary.getLanguageId());
+        setLanguageName(summary.getLanguageName());
+        setStatus(summary.getStatus());
+        setTime(summary.getTime());
+        setCreatedAt(summary.getCreatedAt());
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.coder.DTOs;
+
+import com.example.coder.model.Submission;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class SubmissionStatusDTO {
+    private Long id;
+    private Long userId;
+    private Long exerciseId;
+    private String status;
+    private Double time;
+
+    public SubmissionStatusDTO(Long id, Long userId, Long exerciseId, Submission.Status status, Double time) {
+        this.id = id;
+        this.userId = userId;
+        this.exerciseId = exerciseId;
+        this.status = status.name();
+        this.time = time;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.coder.DTOs;
+
+import com.example.coder.model.Submission;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class SubmissionSummaryDTO {
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long exerciseId;
+    private String exerciseTitle;
+    private Long languageId;
+    private String languageName;
+    private String status;
+    private Double time;
+    private String createdAt;
+
+    // Used by the list projections in SubmissionRepo
+    public SubmissionSummaryDTO(Long id, Long userId, String username,
+                                Long exerciseId, String exerciseTitle,
+                                Long languageId, String languageName,
+                                Submission.Status status, Double time, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.exerciseId = exerciseId;
+        this.exerciseTitle = exerciseTitle;
+        this.languageId = languageId;
+        this.languageName = languageName;
+        this.status = status.name();
+        this.time = time;
+        this.createdAt = createdAt != null ? createdAt.toString() : null;
+    }
+}
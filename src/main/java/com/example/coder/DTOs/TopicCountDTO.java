@@ -0,0 +1,13 @@
+package com.example.coder.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicCountDTO {
+    private String name;
+    private int exerciseCount;
+}
@@ -0,0 +1,34 @@
+package com.example.coder.DTOs;
+
+import com.example.coder.model.UserStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDTO {
+    private Long userId;
+    private long totalSubmissions;
+    private long pending;
+    private long success;
+    private long fail;
+    private long error;
+    private long solvedExercises;
+
+    public static UserStatsDTO from(UserStats stats) {
+        return new UserStatsDTO(
+                stats.getUserId(),
+                stats.getPendingCount() + stats.getSuccessCount() + stats.getFailCount() + stats.getErrorCount(),
+                stats.getPendingCount(),
+                stats.getSuccessCount(),
+                stats.getFailCount(),
+                stats.getErrorCount(),
+                stats.getSolvedExercises());
+    }
+
+    public static UserStatsDTO empty(Long userId) {
+        return new UserStatsDTO(userId, 0, 0, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.coder.admission;
+
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.model.Users;
+import com.example.coder.repo.SubmissionRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a new submission may enter the judge queue.
+ * <p>
+ * Checks run cheapest first: global load shedding, then a token bucket per client IP, then one
+ * per user key with limits taken from the role. A request the user bucket turns away gives
+ * its IP token back. Authenticated users are keyed by their id;
+ * anonymous callers by their address, see {@link #userKey} and {@link #anonymousKey}. Shedding kicks in while the PENDING backlog
+ * or the age of its oldest submission is above its threshold; the backlog is sampled on a
+ * schedule so admitting a request never touches the database. Keeping the queue bounded is
+ * what keeps judge latency bounded for the submissions that do get in.
+ * <p>
+ * Full buckets are dropped periodically. A request racing with the sweep may take its token
+ * from a bucket that was just dropped, which admits at most one extra request.
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    private static final Backlog EMPTY = new Backlog(0, 0);
+
+    private final SubmissionRepo submissionRepo;
+    private final SubmissionMetrics metrics;
+    private final boolean enabled;
+    private final Map<Users.Role, Limit> roleLimits = new EnumMap<>(Users.Role.class);
+    private final Limit ipLimit;
+    private final long maxPending;
+    private final long maxPendingAgeSeconds;
+    private final long shedRetryAfterSeconds;
+
+    private final ConcurrentHashMap<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private volatile Backlog backlog = EMPTY;
+
+    public AdmissionControl(
+            SubmissionRepo submissionRepo,
+            SubmissionMetrics metrics,
+            @Value("${submission.admission.enabled:true}") boolean enabled,
+            @Value("${submission.admission.role.user.per-minute:6}") double userPerMinute,
+            @Value("${submission.admission.role.user.burst:10}") int userBurst,
+            @Value("${submission.admission.role.admin.per-minute:0}") double adminPerMinute,
+            @Value("${submission.admission.role.admin.burst:0}") int adminBurst,
+            @Value("${submission.admission.ip.per-minute:30}") double ipPerMinute,
+            @Value("${submission.admission.ip.burst:60}") int ipBurst,
+            @Value("${submission.admission.shed.max-pending:2000}") long maxPending,
+            @Value("${submission.admission.shed.max-pending-age-seconds:120}") long maxPendingAgeSeconds,
+            @Value("${submission.admission.shed.retry-after-seconds:15}") long shedRetryAfterSeconds) {
+        this.submissionRepo = submissionRepo;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        roleLimits.put(Users.Role.USER, new Limit(userPerMinute, userBurst));
+        roleLimits.put(Users.Role.ADMIN, new Limit(adminPerMinute, adminBurst));
+        this.ipLimit = new Limit(ipPerMinute, ipBurst);
+        this.maxPending = maxPending;
+        this.maxPendingAgeSeconds = maxPendingAgeSeconds;
+        this.shedRetryAfterSeconds = shedRetryAfterSeconds;
+    }
+
+    public static String userKey(Long userId) {
+        return "user:" + userId;
+    }
+
+    public static String anonymousKey(String clientIp) {
+        return "anon:" + clientIp;
+    }
+
+    /**
+     * @param userKey  the caller's bucket key, or null to skip the per-user check
+     * @param role     the caller's role; callers that cannot vouch for it pass {@code USER}
+     * @param clientIp the remote address of the request
+     */
+    public Decision admit(String userKey, Users.Role role, String clientIp) {
+        if (!enabled) {
+            return Decision.ADMITTED;
+        }
+        if (isShedding(backlog)) {
+            return reject(Reason.OVERLOADED, shedRetryAfterSeconds);
+        }
+
+        long now = System.nanoTime();
+        TokenBucket ipBucket = clientIp != null ? bucket(ipBuckets, clientIp, ipLimit, now) : null;
+        if (ipBucket != null) {
+            long wait = ipBucket.tryAcquire(now);
+            if (wait > 0) {
+                return reject(Reason.IP_RATE, toRetryAfterSeconds(wait));
+            }
+        }
+        if (userKey != null) {
+            Limit limit = roleLimits.getOrDefault(role, roleLimits.get(Users.Role.USER));
+            TokenBucket userBucket = bucket(userBuckets, userKey, limit, now);
+            long wait = userBucket != null ? userBucket.tryAcquire(now) : 0;
+            if (wait > 0) {
+                // A throttled user must not use up the address's budget for others behind it
+                if (ipBucket != null) {
+                    ipBucket.refund();
+                }
+                return reject(Reason.USER_RATE, toRetryAfterSeconds(wait));
+            }
+        }
+        return Decision.ADMITTED;
+    }
+
+    @Scheduled(fixedDelayString = "${submission.admission.shed.refresh-interval-ms:1000}")
+    public void refreshBacklog() {
+        if (!enabled) {
+            return;
+        }
+        SubmissionRepo.PendingBacklogView view = submissionRepo.findPendingBacklog();
+        long depth = view.getDepth() != null ? view.getDepth() : 0;
+        LocalDateTime oldest = view.getOldestCreatedAt();
+        long oldestAgeSeconds = oldest != null
+                ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds())
+                : 0;
+        Backlog previous = backlog;
+        backlog = new Backlog(depth, oldestAgeSeconds);
+        if (isShedding(previous) != isShedding(backlog)) {
+            log.warn("Submission load shedding {}: {} pending, oldest {}s",
+                    isShedding(backlog) ? "started" : "stopped", depth, oldestAgeSeconds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${submission.admission.sweep-interval-ms:60000}")
+    public void dropFullBuckets() {
+        long now = System.nanoTime();
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * The key's bucket, created on first use, or null if the limit is off.
+     */
+    private <K> TokenBucket bucket(ConcurrentHashMap<K, TokenBucket> buckets, K key, Limit limit, long now) {
+        if (limit.unlimited()) {
+            return null;
+        }
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.intervalNanos(), limit.burst(), now));
+        }
+        return bucket;
+    }
+
+    private boolean isShedding(Backlog state) {
+        return (maxPending > 0 && state.depth() >= maxPending)
+                || (maxPendingAgeSeconds > 0 && state.oldestAgeSeconds() >= maxPendingAgeSeconds);
+    }
+
+    private Decision reject(Reason reason, long retryAfterSeconds) {
+        metrics.recordRejected(reason.name().toLowerCase());
+        return new Decision(reason, retryAfterSeconds);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public enum Reason {
+        USER_RATE("Too many submissions, please slow down"),
+        IP_RATE("Too many submissions from this address, please slow down"),
+        OVERLOADED("The judge is busy, please try again shortly");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Outcome of {@link #admit}; a null reason means the submission was admitted.
+     */
+    public record Decision(Reason reason, long retryAfterSeconds) {
+
+        static final Decision ADMITTED = new Decision(null, 0);
+
+        public boolean admitted() {
+            return reason == null;
+        }
+    }
+
+    private record Backlog(long depth, long oldestAgeSeconds) {
+    }
+
+    /**
+     * A per-minute rate and bucket size; a rate of zero or less means no limit.
+     */
+    private record Limit(double perMinute, int burst) {
+
+        boolean unlimited() {
+            return perMinute <= 0;
+        }
+
+        long intervalNanos() {
+            return (long) (TimeUnit.MINUTES.toNanos(1) / perMinute);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.coder.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket stored as a single theoretical arrival time (the generic cell rate algorithm),
+ * so taking a token is one compare-and-set and never blocks. A bucket refilling one token per
+ * {@code intervalNanos} with room for {@code burst} tokens admits {@code burst} requests at
+ * once and then one per interval.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available. Returns 0 on success, otherwise how many nanoseconds
+     * until the next token.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - nowNanos > 0 ? arrival : nowNanos;
+            long wait = start - toleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was then turned away.
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped.
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
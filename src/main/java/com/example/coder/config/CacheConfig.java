@@ -0,0 +1,55 @@
+package com.example.coder.config;
+
+import com.example.coder.judge.JudgeResultCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String EXERCISE_BY_ID = "exerciseById";
+    // Catalog listings: all exercises, per difficulty, topic names and topic counts
+    public static final String EXERCISE_CATALOG = "exerciseCatalog";
+    // Authenticated principals by username, see PrincipalCache
+    public static final String PRINCIPALS = "principals";
+    // Verdicts by content address, see JudgeResultCache; bounded by size in bytes, not entries,
+    // and expired with the table rows
+    public static final String JUDGE_RESULTS = "judgeResults";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.exercises.max-size:1000}") long maxSize,
+            @Value("${cache.exercises.ttl-seconds:300}") long ttlSeconds,
+            @Value("${cache.principals.max-size:10000}") long principalsMaxSize,
+            @Value("${cache.principals.ttl-seconds:60}") long principalsTtlSeconds,
+            @Value("${judge.result-cache.max-bytes:67108864}") long judgeResultsMaxBytes,
+            @Value("${judge.result-cache.ttl-days:30}") int judgeResultsTtlDays) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(EXERCISE_BY_ID, EXERCISE_CATALOG);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.newBuilder()
+                .maximumSize(principalsMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(principalsTtlSeconds))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(JUDGE_RESULTS, Caffeine.newBuilder()
+                .maximumWeight(judgeResultsMaxBytes)
+                .weigher((Object key, Object value) -> value instanceof JudgeResultCache.CachedResult result
+                        ? result.weight() : 1)
+                .expireAfterWrite(Duration.ofDays(judgeResultsTtlDays))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.coder.config;
+
+import com.example.coder.events.ExerciseChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached catalog reads once an exercise write has committed, so reads that start
+ * after the commit load the new rows. A read that loaded the rows before the commit can
+ * still put them back after this eviction; such an entry lives at most
+ * {@code cache.exercises.ttl-seconds}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExerciseCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExerciseChanged(ExerciseChangedEvent event) {
+        Cache byId = cacheManager.getCache(CacheConfig.EXERCISE_BY_ID);
+        if (byId != null) {
+            byId.evict(event.getExerciseId());
+        }
+        // Any write can change every listing (order, difficulty buckets, topic counts)
+        Cache catalog = cacheManager.getCache(CacheConfig.EXERCISE_CATALOG);
+        if (catalog != null) {
+            catalog.clear();
+        }
+    }
+}
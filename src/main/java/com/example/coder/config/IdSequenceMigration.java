@@ -0,0 +1,61 @@
+package com.example.coder.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences past the ids that were handed out by AUTO_INCREMENT before the
+ * entities switched to pooled sequences.
+ * <p>
+ * Hibernate's pooled optimizer treats each sequence value as the top of a block of
+ * {@code allocationSize} ids, so a sequence has to be at least {@code MAX(id) + increment}
+ * for the block below it to be unused. Runs on every startup after the schema update (which
+ * creates missing sequences starting at 1) and before the application takes traffic; once a
+ * sequence is ahead it is left alone.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory")
+public class IdSequenceMigration {
+
+    // Table -> sequence, as declared on the entities
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users", "users_seq",
+            "exercises", "exercises_seq",
+            "languages", "languages_seq",
+            "topics", "topics_seq",
+            "submissions", "submissions_seq");
+
+    private static final int DEFAULT_INCREMENT = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void migrate() {
+        SEQUENCES.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(String table, String sequence) {
+        long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence
+                + " START WITH " + (maxId + DEFAULT_INCREMENT) + " INCREMENT BY " + DEFAULT_INCREMENT);
+
+        // Reading the sequence table does not consume a value
+        Map<String, Object> state = jdbcTemplate.queryForMap(
+                "SELECT next_not_cached_value, `increment` FROM " + sequence);
+        long next = ((Number) state.get("next_not_cached_value")).longValue();
+        long increment = ((Number) state.get("increment")).longValue();
+
+        if (next < maxId + increment) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + increment));
+            log.info("Moved {} from {} to {} past existing ids of {}", sequence, next, maxId + increment, table);
+        }
+    }
+}
@@ -9,11 +9,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,15 +27,21 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO request) {
-        try {
-            LoginResponseDTO response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-        }
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequestDTO request) {
+        return authService.login(request)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    Map<String, String> errorResponse = new HashMap<>();
+                    if (cause instanceof ResponseStatusException statusException) {
+                        errorResponse.put("message", statusException.getReason());
+                        return ResponseEntity.status(statusException.getStatusCode()).body(errorResponse);
+                    }
+                    errorResponse.put("message", cause instanceof BadCredentialsException
+                            ? cause.getMessage()
+                            : "Có lỗi xảy ra khi đăng nhập");
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+                });
     }
 
     @PostMapping("/register")
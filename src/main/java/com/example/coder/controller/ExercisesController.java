@@ -1,13 +1,27 @@
 package com.example.coder.controller;
 
+import com.example.coder.DTOs.BulkImportResultDTO;
+import com.example.coder.DTOs.CacheStatsDTO;
+import com.example.coder.DTOs.ExerciseDTO;
+import com.example.coder.DTOs.TopicCountDTO;
 import com.example.coder.model.Exercises;
+import com.example.coder.search.ExerciseSuggestion;
 import com.example.coder.services.ExcercisesService;
+import com.example.coder.services.ExerciseBulkService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -15,6 +29,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ExercisesController {
     private final ExcercisesService excercisesService;
+    private final ExerciseBulkService exerciseBulkService;
 
     @PostMapping
     public ResponseEntity<Exercises> addExercise(@RequestBody Exercises exercises) {
@@ -25,8 +40,34 @@ public class ExercisesController {
         }
     }
 
+    /**
+     * Accepts a JSON array or NDJSON of exercises and reports the ones it rejected.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResultDTO> importExercises(InputStream body) {
+        return exerciseBulkService.importExercises(body);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportExercises(
+            @RequestParam(defaultValue = "json") String format,
+            HttpServletResponse response) throws IOException {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"json".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be json or ndjson");
+        }
+
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"exercises." + (ndjson ? "ndjson" : "json") + "\"");
+        exerciseBulkService.exportExercises(response.getOutputStream(), ndjson);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Exercises>> getAllExercises() {
+    public ResponseEntity<List<ExerciseDTO>> getAllExercises() {
         try {
             return excercisesService.getAllExercises();
         }catch (Exception e) {
@@ -35,7 +76,7 @@ public class ExercisesController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Exercises> getExerciseById(@PathVariable Long id) {
+    public ResponseEntity<ExerciseDTO> getExerciseById(@PathVariable Long id) {
         try {
             return excercisesService.getExerciseById(id);
         }catch (Exception e) {
@@ -44,7 +85,7 @@ public class ExercisesController {
     }
 
     @GetMapping("/difficulty/{difficulty}")
-    public ResponseEntity<List<Exercises>> getExercisesByDifficulty(@PathVariable String difficulty) {
+    public ResponseEntity<List<ExerciseDTO>> getExercisesByDifficulty(@PathVariable String difficulty) {
         try {
             return excercisesService.getExercisesByDifficulty(difficulty);
         }catch (Exception e) {
@@ -90,6 +131,17 @@ public class ExercisesController {
         }
     }
 
+    @GetMapping("/topics/counts")
+    public ResponseEntity<List<TopicCountDTO>> getTopicCounts() {
+        return excercisesService.getTopicCounts();
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return excercisesService.getCacheStats();
+    }
+
     @GetMapping("/search/all")
     public ResponseEntity<List<Exercises>> searchExercises(@RequestParam String keyword) {
         try {
@@ -99,6 +151,22 @@ public class ExercisesController {
         }
     }
 
+    @GetMapping("/search/paged")
+    public ResponseEntity<Page<Exercises>> searchExercisesPaged(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return excercisesService.searchExercisesPaged(keyword, difficulty, page, size);
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<ExerciseSuggestion>> suggestExercises(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return excercisesService.suggestExercises(prefix, limit);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Exercises> updateExercise(@PathVariable Long id, @RequestBody Exercises exercise) {
         try {
@@ -0,0 +1,42 @@
+package com.example.coder.controller;
+
+import com.example.coder.DTOs.LeaderboardEntryDTO;
+import com.example.coder.services.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntryDTO>> getGlobalLeaderboard(
+            @RequestParam(defaultValue = "20") int limit) {
+        return leaderboardService.getGlobalLeaderboard(limit);
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardEntryDTO> getGlobalRank(@PathVariable Long userId) {
+        return leaderboardService.getGlobalRank(userId);
+    }
+
+    @GetMapping("/exercises/{exerciseId}")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getExerciseLeaderboard(
+            @PathVariable Long exerciseId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return leaderboardService.getExerciseLeaderboard(exerciseId, limit);
+    }
+
+    @GetMapping("/exercises/{exerciseId}/users/{userId}")
+    public ResponseEntity<LeaderboardEntryDTO> getExerciseRank(
+            @PathVariable Long exerciseId,
+            @PathVariable Long userId) {
+        return leaderboardService.getExerciseRank(exerciseId, userId);
+    }
+}
@@ -1,21 +1,36 @@
 package com.example.coder.controller;
 
+import com.example.coder.DTOs.CursorPageDTO;
+import com.example.coder.DTOs.LanguageStatsDTO;
 import com.example.coder.DTOs.SubmissionCreateDTO;
 import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.DTOs.SubmissionSummaryDTO;
 import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.DTOs.UserStatsDTO;
+import com.example.coder.admission.AdmissionControl;
+import com.example.coder.events.SubmissionStatusBroadcaster;
 import com.example.coder.model.Users;
+import com.example.coder.repo.SubmissionPayloadRepo;
 import com.example.coder.security.CustomUserDetailsService;
+import com.example.coder.security.UserPrincipal;
 import com.example.coder.services.SubmissionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.security.core.Authentication;
 import org.springframework.data.domain.Page;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,9 +42,20 @@ import java.util.Optional;
 public class SubmissionController {
     private final SubmissionService submissionService;
     private final CustomUserDetailsService userDetailsService;
+    private final SubmissionStatusBroadcaster statusBroadcaster;
+    private final AdmissionControl admissionControl;
 
     @PostMapping
-    public ResponseEntity<?> createSubmission(@Valid @RequestBody SubmissionCreateDTO dto) {
+    public ResponseEntity<?> createSubmission(
+            @Valid @RequestBody SubmissionCreateDTO dto,
+            Authentication authentication,
+            HttpServletRequest request) {
+        AdmissionControl.Decision decision = admit(authentication, request);
+        if (!decision.admitted()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()))
+                    .body(Map.of("error", decision.reason().getMessage()));
+        }
         try {
             SubmissionResponseDTO response = submissionService.createSubmission(dto.getUserId(), dto);
             return ResponseEntity.ok(response);
@@ -38,39 +64,94 @@ public class SubmissionController {
         }
     }
 
+    /**
+     * Authenticated callers are limited by their own id and role. Anonymous ones are limited
+     * by their address at the USER role's rate, never by the user id in the body, which they
+     * choose.
+     */
+    private AdmissionControl.Decision admit(Authentication authentication, HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return admissionControl.admit(AdmissionControl.userKey(principal.getId()), principal.getRole(), clientIp);
+        }
+        return admissionControl.admit(AdmissionControl.anonymousKey(clientIp), Users.Role.USER, clientIp);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SubmissionResponseDTO> getSubmission(@PathVariable Long id) {
         SubmissionResponseDTO response = submissionService.getSubmissionById(id);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/payload/{field}")
+    public ResponseEntity<String> getSubmissionPayload(@PathVariable Long id, @PathVariable String field) {
+        SubmissionPayloadRepo.Field payloadField = SubmissionPayloadRepo.Field.fromPath(field)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Field must be one of source, stdout, stderr, compile-output"));
+
+        // Read within the service transaction, written to the client after it has ended
+        String payload = submissionService.getSubmissionPayload(id, payloadField)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission không tồn tại"));
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(payload);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubmissionStatus(@PathVariable Long id) {
+        return statusBroadcaster.subscribeToSubmission(id, () -> submissionService.getSubmissionStatus(id));
+    }
+
+    @GetMapping(value = "/my-submissions/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMySubmissionStatus(@RequestParam Long userId) {
+        return statusBroadcaster.subscribeToUser(userId);
+    }
+
     @GetMapping("/my-submissions")
-    public ResponseEntity<List<SubmissionResponseDTO>> getMySubmissions(@RequestParam Long userId) {
-        List<SubmissionResponseDTO> submissions = submissionService.getSubmissionsByUser(userId);
+    public ResponseEntity<List<SubmissionSummaryDTO>> getMySubmissions(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "false") boolean includeSource) {
+        List<SubmissionSummaryDTO> submissions = submissionService.getSubmissionsByUser(userId, includeSource);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/my-submissions/page")
-    public ResponseEntity<Page<SubmissionResponseDTO>> getMySubmissionsPaged(
+    public ResponseEntity<Page<SubmissionSummaryDTO>> getMySubmissionsPaged(
             @RequestParam Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeSource) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<SubmissionResponseDTO> submissions = submissionService.getSubmissionsByUserPaged(userId, pageable);
+        Page<SubmissionSummaryDTO> submissions = submissionService.getSubmissionsByUserPaged(userId, pageable, includeSource);
+        return ResponseEntity.ok(submissions);
+    }
+
+    @GetMapping(value = "/my-submissions/page", params = "cursor")
+    public ResponseEntity<CursorPageDTO<SubmissionSummaryDTO>> getMySubmissionsByCursor(
+            @RequestParam Long userId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeSource,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorPageDTO<SubmissionSummaryDTO> submissions = submissionService.getSubmissionsByUserCursor(
+                userId, cursor, size, includeSource, includeTotal);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/exercise/{exerciseId}")
-    public ResponseEntity<List<SubmissionResponseDTO>> getSubmissionsByExercise(@PathVariable Long exerciseId) {
-        List<SubmissionResponseDTO> submissions = submissionService.getSubmissionsByExercise(exerciseId);
+    public ResponseEntity<List<SubmissionSummaryDTO>> getSubmissionsByExercise(
+            @PathVariable Long exerciseId,
+            @RequestParam(defaultValue = "false") boolean includeSource) {
+        List<SubmissionSummaryDTO> submissions = submissionService.getSubmissionsByExercise(exerciseId, includeSource);
         return ResponseEntity.ok(submissions);
     }
 
     @GetMapping("/exercise/{exerciseId}/my-submissions")
-    public ResponseEntity<List<SubmissionResponseDTO>> getMySubmissionsForExercise(
+    public ResponseEntity<List<SubmissionSummaryDTO>> getMySubmissionsForExercise(
             @PathVariable Long exerciseId,
-            @RequestParam Long userId) {
-        List<SubmissionResponseDTO> submissions = submissionService.getUserSubmissionsForExercise(userId, exerciseId);
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "false") boolean includeSource) {
+        List<SubmissionSummaryDTO> submissions = submissionService.getUserSubmissionsForExercise(userId, exerciseId, includeSource);
         return ResponseEntity.ok(submissions);
     }
 
@@ -84,8 +165,10 @@ public class SubmissionController {
 
     @GetMapping("/pending")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SubmissionResponseDTO>> getPendingSubmissions(Authentication auth) {
-        List<SubmissionResponseDTO> submissions = submissionService.getPendingSubmissions();
+    public ResponseEntity<List<SubmissionSummaryDTO>> getPendingSubmissions(
+            @RequestParam(defaultValue = "false") boolean includeSource,
+            Authentication auth) {
+        List<SubmissionSummaryDTO> submissions = submissionService.getPendingSubmissions(includeSource);
         return ResponseEntity.ok(submissions);
     }
 
@@ -112,30 +195,31 @@ public class SubmissionController {
     }
 
     @GetMapping("/stats/my-stats")
-    public ResponseEntity<List<Object[]>> getMySubmissionStats(@RequestParam Long userId) {
-        List<Object[]> stats = submissionService.getSubmissionStatsByUser(userId);
+    public ResponseEntity<UserStatsDTO> getMySubmissionStats(@RequestParam Long userId) {
+        UserStatsDTO stats = submissionService.getSubmissionStatsByUser(userId);
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/stats/by-language")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Object[]>> getSubmissionStatsByLanguage(Authentication auth) {
-        List<Object[]> stats = submissionService.getSubmissionStatsByLanguage();
+    public ResponseEntity<List<LanguageStatsDTO>> getSubmissionStatsByLanguage(Authentication auth) {
+        List<LanguageStatsDTO> stats = submissionService.getSubmissionStatsByLanguage();
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/my-submissions/paged")
-    public ResponseEntity<Page<SubmissionResponseDTO>> getMySubmissionsPaged(
+    public ResponseEntity<Page<SubmissionSummaryDTO>> getMySubmissionsPaged(
             @RequestParam Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) Long languageId,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String exerciseKeyword) {
+            @RequestParam(required = false) String exerciseKeyword,
+            @RequestParam(defaultValue = "false") boolean includeSource) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<SubmissionResponseDTO> submissions = submissionService.getSubmissionsByUserPagedWithFilters(
-                userId, pageable, languageId, status, exerciseKeyword);
+        Page<SubmissionSummaryDTO> submissions = submissionService.getSubmissionsByUserPagedWithFilters(
+                userId, pageable, languageId, status, exerciseKeyword, includeSource);
         return ResponseEntity.ok(submissions);
     }
 
@@ -3,6 +3,7 @@ package com.example.coder.controller;
 import com.example.coder.DTOs.UserResponseDTO;
 import com.example.coder.model.Users;
 import com.example.coder.security.CustomUserDetailsService;
+import com.example.coder.security.UserPrincipal;
 import com.example.coder.services.UsersService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -109,6 +110,9 @@ public class UsersController {
     }
 
     public boolean isCurrentUser(Authentication auth, Long userId) {
+        if (auth.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId().equals(userId);
+        }
         try {
             String username = auth.getName();
             Users user = userDetailsService.getUserByUsername(username);
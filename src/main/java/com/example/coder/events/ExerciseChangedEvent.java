@@ -0,0 +1,24 @@
+package com.example.coder.events;
+
+import com.example.coder.model.Exercises;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when an exercise is created, updated or deleted. {@code exercise} is null for
+ * deletes.
+ */
+@Getter
+@AllArgsConstructor
+public class ExerciseChangedEvent {
+    private final Long exerciseId;
+    private final Exercises exercise;
+
+    public static ExerciseChangedEvent saved(Exercises exercise) {
+        return new ExerciseChangedEvent(exercise.getId(), exercise);
+    }
+
+    public static ExerciseChangedEvent deleted(Long exerciseId) {
+        return new ExerciseChangedEvent(exerciseId, null);
+    }
+}
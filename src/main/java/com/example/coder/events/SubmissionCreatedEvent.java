@@ -0,0 +1,11 @@
+package com.example.coder.events;
+
+import com.example.coder.judge.JudgeTask;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubmissionCreatedEvent {
+    private final JudgeTask task;
+}
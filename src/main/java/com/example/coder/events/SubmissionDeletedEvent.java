@@ -0,0 +1,15 @@
+package com.example.coder.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a submission is deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class SubmissionDeletedEvent {
+    private final Long submissionId;
+    private final Long userId;
+    private final Long exerciseId;
+}
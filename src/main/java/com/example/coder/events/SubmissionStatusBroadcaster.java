@@ -0,0 +1,231 @@
+package com.example.coder.events;
+
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pushes submission status changes to Server-Sent Events subscribers, either for a single
+ * submission or for everything a user submits. Fed by {@link SubmissionStatusEvent}s
+ * published from {@code updateSubmissionResult} once the update has committed.
+ * <p>
+ * The committing thread (for verdicts, the judge result writer) only queues the writes; they
+ * are sent on a small {@code submission.events.fan-out-threads} pool. Each subscriber's
+ * writes run one at a time and in order, so a stalled client holds up its own stream and at
+ * most one pool thread, never verdict writing.
+ */
+@Slf4j
+@Component
+public class SubmissionStatusBroadcaster {
+
+    private static final String EVENT_NAME = "status";
+
+    private final Map<Long, Set<Subscriber>> bySubmission = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final ExecutorService fanOut;
+
+    public SubmissionStatusBroadcaster(
+            @Value("${submission.events.timeout-ms:300000}") long timeoutMs,
+            @Value("${submission.events.fan-out-threads:4}") int fanOutThreads) {
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(Math.max(1, fanOutThreads), runnable -> {
+            Thread thread = new Thread(runnable, "sse-fan-out-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        fanOut.shutdownNow();
+    }
+
+    /**
+     * Subscribes to one submission. The current status is loaded after registering, so a
+     * transition that happens in between is never missed, and is queued ahead of any later
+     * event; if it is already final the stream completes right away.
+     */
+    public SseEmitter subscribeToSubmission(Long submissionId, Supplier<SubmissionStatusDTO> currentStatus) {
+        Subscriber subscriber = register(bySubmission, submissionId);
+        SubmissionStatusDTO current;
+        try {
+            current = currentStatus.get();
+        } catch (RuntimeException e) {
+            // The emitter never reaches the container, so its completion callback would not run
+            unregister(bySubmission, submissionId, subscriber);
+            throw e;
+        }
+
+        subscriber.write(() -> sendAndCompleteIfFinal(subscriber.emitter, current));
+        return subscriber.emitter;
+    }
+
+    public SseEmitter subscribeToUser(Long userId) {
+        return register(byUser, userId).emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(SubmissionStatusEvent event) {
+        SubmissionStatusDTO status = event.getStatus();
+
+        Set<Subscriber> submissionSubscribers = bySubmission.get(status.getId());
+        if (submissionSubscribers != null) {
+            for (Subscriber subscriber : submissionSubscribers) {
+                subscriber.write(() -> sendAndCompleteIfFinal(subscriber.emitter, status));
+            }
+        }
+
+        Set<Subscriber> userSubscribers = byUser.get(status.getUserId());
+        if (userSubscribers != null) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.write(() -> send(subscriber.emitter, status));
+            }
+        }
+    }
+
+    /**
+     * Comment-only heartbeat so idle connections survive proxies and dead clients are dropped.
+     * Subscribers with a write still queued are skipped, so a stalled one does not pile up pings.
+     */
+    @Scheduled(fixedDelayString = "${submission.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subscribers : bySubmission.values()) {
+            subscribers.forEach(Subscriber::ping);
+        }
+        for (Set<Subscriber> subscribers : byUser.values()) {
+            subscribers.forEach(Subscriber::ping);
+        }
+    }
+
+    int subscriberCount() {
+        int count = 0;
+        for (Set<Subscriber> subscribers : bySubmission.values()) {
+            count += subscribers.size();
+        }
+        for (Set<Subscriber> subscribers : byUser.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    private Subscriber register(Map<Long, Set<Subscriber>> registry, Long key) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs));
+        registry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        subscriber.emitter.onCompletion(() -> unregister(registry, key, subscriber));
+        subscriber.emitter.onTimeout(() -> unregister(registry, key, subscriber));
+        subscriber.emitter.onError(e -> unregister(registry, key, subscriber));
+        return subscriber;
+    }
+
+    private void unregister(Map<Long, Set<Subscriber>> registry, Long key, Subscriber subscriber) {
+        registry.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void sendAndCompleteIfFinal(SseEmitter emitter, SubmissionStatusDTO status) {
+        if (send(emitter, status) && isFinal(status)) {
+            emitter.complete();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, SubmissionStatusDTO status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(String.valueOf(status.getId()))
+                    .data(status));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping SSE subscriber: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private boolean isFinal(SubmissionStatusDTO status) {
+        return !"PENDING".equals(status.getStatus());
+    }
+
+    /**
+     * An emitter and its queued writes, drained on the fan-out pool by at most one thread at a time.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Runnable> writes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void write(Runnable write) {
+            writes.add(write);
+            schedule();
+        }
+
+        void ping() {
+            if (writes.isEmpty() && !draining.get()) {
+                write(() -> {
+                    try {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } catch (IOException | IllegalStateException e) {
+                        emitter.completeWithError(e);
+                    }
+                });
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    fanOut.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    writes.clear();
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            Runnable write;
+            while ((write = writes.poll()) != null) {
+                try {
+                    write.run();
+                } catch (RuntimeException e) {
+                    log.debug("SSE write failed: {}", e.getMessage());
+                }
+            }
+            draining.set(false);
+            // A write queued after the last poll but before the flag was cleared
+            if (!writes.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.coder.events;
+
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SubmissionStatusEvent {
+    private final SubmissionStatusDTO status;
+}
@@ -0,0 +1,23 @@
+package com.example.coder.events;
+
+import com.example.coder.model.Users;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user is updated or deleted. {@code tokenVersion} is null for deletes.
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final Long userId;
+    private final Integer tokenVersion;
+
+    public static UserChangedEvent saved(Users user) {
+        return new UserChangedEvent(user.getId(), user.getTokenVersion());
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(userId, null);
+    }
+}
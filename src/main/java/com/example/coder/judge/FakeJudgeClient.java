@@ -0,0 +1,47 @@
+package com.example.coder.judge;
+
+import com.example.coder.model.Submission;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process judge for tests and local runs without Judge0. It does not run the code:
+ * a submission whose source contains the expected output is accepted, anything else
+ * is a wrong answer.
+ */
+@Component
+@ConditionalOnProperty(name = "judge.client", havingValue = "fake")
+public class FakeJudgeClient implements JudgeClient {
+
+    private final long latencyMs;
+
+    public FakeJudgeClient(@Value("${judge.fake.latency-ms:50}") long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public JudgeResult execute(JudgeTask task) {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                // Shutting down: not a verdict, so the lease is released and it is judged again
+                Thread.currentThread().interrupt();
+                return new JudgeResult(task.getSubmissionId(), Submission.Status.PENDING, null, null, null, null);
+            }
+        }
+
+        String expected = task.getExpectedOutput() == null ? "" : task.getExpectedOutput().trim();
+        boolean accepted = task.getSourceCode() != null && task.getSourceCode().contains(expected);
+
+        return new JudgeResult(
+                task.getSubmissionId(),
+                accepted ? Submission.Status.SUCCESS : Submission.Status.FAIL,
+                accepted ? expected : "",
+                null,
+                null,
+                latencyMs / 1000.0
+        );
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.coder.judge;
+
+import com.example.coder.model.Submission;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "judge.client", havingValue = "judge0", matchIfMissing = true)
+public class Judge0Client implements JudgeClient {
+
+    private static final String RESULT_FIELDS = "token,stdout,stderr,compile_output,message,time,status";
+
+    private final RestClient restClient;
+    private final long pollIntervalMs;
+    private final long pollTimeoutMs;
+
+    public Judge0Client(
+            @Value("${judge.judge0.url:http://localhost:2358}") String baseUrl,
+            @Value("${judge.judge0.auth-token:}") String authToken,
+            @Value("${judge.judge0.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${judge.judge0.read-timeout-ms:30000}") int readTimeoutMs,
+            @Value("${judge.judge0.poll-interval-ms:500}") long pollIntervalMs,
+            @Value("${judge.judge0.poll-timeout-ms:60000}") long pollTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory);
+        if (!authToken.isEmpty()) {
+            builder.defaultHeader("X-Auth-Token", authToken);
+        }
+        this.restClient = builder.build();
+        this.pollIntervalMs = pollIntervalMs;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    @Override
+    public JudgeResult execute(JudgeTask task) {
+        try {
+            Judge0Response response = restClient.post()
+                    .uri("/submissions?base64_encoded=false&wait=true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Judge0Request.from(task))
+                    .retrieve()
+                    .body(Judge0Response.class);
+
+            if (response == null) {
+                return JudgeResult.error(task.getSubmissionId(), "Empty response from Judge0");
+            }
+            return response.toResult(task.getSubmissionId());
+        } catch (ResourceAccessException e) {
+            // No answer, e.g. a read timeout: Judge0 may still be running it, so judge it again later
+            return pending(task);
+        } catch (RestClientException e) {
+            return JudgeResult.error(task.getSubmissionId(), "Judge0 request failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the whole batch with one POST /submissions/batch, then polls all outstanding
+     * tokens with one GET /submissions/batch per round until every verdict is final. Only a
+     * failed create is an error; once Judge0 holds the tokens a failed poll is retried on the
+     * next round, and whatever is unresolved at the deadline comes back PENDING.
+     */
+    @Override
+    public List<JudgeResult> executeBatch(List<JudgeTask> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
+
+        JudgeResult[] results = new JudgeResult[tasks.size()];
+        Map<String, Integer> pending = new HashMap<>();
+        List<Judge0Request> requests = new ArrayList<>(tasks.size());
+        for (JudgeTask task : tasks) {
+            requests.add(Judge0Request.from(task));
+        }
+
+        Judge0Response[] created;
+        try {
+            created = restClient.post()
+                    .uri("/submissions/batch?base64_encoded=false")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("submissions", requests))
+                    .retrieve()
+                    .body(Judge0Response[].class);
+        } catch (RestClientException e) {
+            fillMissing(tasks, results, "Judge0 request failed: " + e.getMessage());
+            return List.of(results);
+        }
+
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                String token = created != null && i < created.length && created[i] != null
+                        ? created[i].getToken() : null;
+                if (token == null) {
+                    results[i] = JudgeResult.error(tasks.get(i).getSubmissionId(), "Judge0 rejected the submission");
+                } else {
+                    pending.put(token, i);
+                }
+            }
+
+            long deadline = System.currentTimeMillis() + pollTimeoutMs;
+            while (!pending.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(pollIntervalMs);
+
+                Judge0BatchResponse polled;
+                try {
+                    polled = restClient.get()
+                            .uri("/submissions/batch?base64_encoded=false&tokens={tokens}&fields={fields}",
+                                    String.join(",", pending.keySet()), RESULT_FIELDS)
+                            .retrieve()
+                            .body(Judge0BatchResponse.class);
+                } catch (RestClientException e) {
+                    log.debug("Polling {} Judge0 tokens failed, retrying", pending.size(), e);
+                    continue;
+                }
+                if (polled == null || polled.getSubmissions() == null) {
+                    continue;
+                }
+
+                for (Judge0Response response : polled.getSubmissions()) {
+                    Integer index = response == null ? null : pending.get(response.getToken());
+                    if (index == null) {
+                        continue;
+                    }
+                    JudgeResult result = response.toResult(tasks.get(index).getSubmissionId());
+                    if (result.getStatus() != Submission.Status.PENDING) {
+                        results[index] = result;
+                        pending.remove(response.getToken());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything still unresolved stays PENDING so the dispatcher re-queues it later.
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = pending(tasks.get(i));
+            }
+        }
+        return List.of(results);
+    }
+
+    private static JudgeResult pending(JudgeTask task) {
+        return new JudgeResult(task.getSubmissionId(), Submission.Status.PENDING, null, null, null, null);
+    }
+
+    private void fillMissing(List<JudgeTask> tasks, JudgeResult[] results, String message) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = JudgeResult.error(tasks.get(i).getSubmissionId(), message);
+            }
+        }
+    }
+
+    static Submission.Status mapStatus(Integer statusId) {
+        if (statusId == null) {
+            return Submission.Status.ERROR;
+        }
+        // https://ce.judge0.com/statuses: 3 Accepted, 4 Wrong Answer, 5 Time Limit Exceeded,
+        // 6 Compilation Error, 7-12 Runtime Error, 13 Internal Error, 14 Exec Format Error
+        switch (statusId) {
+            case 1:
+            case 2:
+                return Submission.Status.PENDING;
+            case 3:
+                return Submission.Status.SUCCESS;
+            case 4:
+            case 5:
+                return Submission.Status.FAIL;
+            default:
+                return Submission.Status.ERROR;
+        }
+    }
+
+    @Data
+    static class Judge0Request {
+        @JsonProperty("source_code")
+        private String sourceCode;
+
+        @JsonProperty("language_id")
+        private Integer languageId;
+
+        private String stdin;
+
+        @JsonProperty("expected_output")
+        private String expectedOutput;
+
+        static Judge0Request from(JudgeTask task) {
+            Judge0Request request = new Judge0Request();
+            request.setSourceCode(task.getSourceCode());
+            request.setLanguageId(task.getLanguageCode());
+            request.setStdin(task.getStdin());
+            request.setExpectedOutput(task.getExpectedOutput());
+            return request;
+        }
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Judge0Response {
+        private String token;
+        private String stdout;
+        private String stderr;
+
+        @JsonProperty("compile_output")
+        private String compileOutput;
+
+        private String message;
+        private String time;
+        private Judge0Status status;
+
+        JudgeResult toResult(Long submissionId) {
+            Double seconds = null;
+            if (time != null && !time.isEmpty()) {
+                try {
+                    seconds = Double.valueOf(time);
+                } catch (NumberFormatException e) {
+                    seconds = null;
+                }
+            }
+            String errorOutput = stderr != null ? stderr : message;
+            return new JudgeResult(
+                    submissionId,
+                    mapStatus(status != null ? status.getId() : null),
+                    stdout,
+                    errorOutput,
+                    compileOutput,
+                    seconds
+            );
+        }
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Judge0BatchResponse {
+        private List<Judge0Response> submissions;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Judge0Status {
+        private Integer id;
+        private String description;
+    }
+}
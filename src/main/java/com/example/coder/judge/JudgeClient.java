@@ -0,0 +1,24 @@
+package com.example.coder.judge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a submission against a judge backend and blocks until a verdict is available.
+ * Implementations are called from the judge worker pool, never from a request thread.
+ */
+public interface JudgeClient {
+    JudgeResult execute(JudgeTask task);
+
+    /**
+     * Judges several submissions at once. Results are returned in the same order as the
+     * tasks. Backends with a batch API should override this to use one round trip per batch.
+     */
+    default List<JudgeResult> executeBatch(List<JudgeTask> tasks) {
+        List<JudgeResult> results = new ArrayList<>(tasks.size());
+        for (JudgeTask task : tasks) {
+            results.add(execute(task));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.coder.judge;
+
+import com.example.coder.events.SubmissionCreatedEvent;
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.model.Submission;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feeds PENDING submissions to the {@link JudgeClient} on a dedicated worker pool.
+ * <p>
+ * Work is claimed from the durable {@link SubmissionQueue} into a bounded local buffer. A new
+ * submission is claimed right after its transaction commits, so the request thread never
+ * waits on the judge; everything else (buffer was full, another node died, restart) is picked
+ * up by the periodic claim loop. Leases of buffered and running submissions are renewed until
+ * a verdict is written.
+ * <p>
+ * Each worker hands the judge up to {@code judge.batch.size} submissions at a time, waiting
+ * at most {@code judge.batch.linger-ms} for a batch to fill, so a busy queue costs one judge
+ * round trip per batch instead of one per submission. Verdicts go to the
+ * {@link JudgeResultSink}, which writes them back in batches.
+ */
+@Slf4j
+@Component
+public class JudgeDispatcher {
+
+    private final JudgeClient judgeClient;
+    private final JudgeResultSink resultSink;
+    private final SubmissionQueue submissionQueue;
+    private final SubmissionMetrics metrics;
+    private final int workerCount;
+    private final boolean virtualThreads;
+    private final int batchSize;
+    private final long lingerMs;
+    private final BlockingQueue<JudgeTask> queue;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public JudgeDispatcher(
+            JudgeClient judgeClient,
+            JudgeResultSink resultSink,
+            SubmissionQueue submissionQueue,
+            SubmissionMetrics metrics,
+            @Value("${judge.workers:8}") int workerCount,
+            @Value("${judge.queue-capacity:500}") int queueCapacity,
+            @Value("${judge.batch.size:20}") int batchSize,
+            @Value("${judge.batch.linger-ms:200}") long lingerMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.judgeClient = judgeClient;
+        this.resultSink = resultSink;
+        this.submissionQueue = submissionQueue;
+        this.metrics = metrics;
+        this.workerCount = workerCount;
+        // Virtual threads need Java 21; on older runtimes the setting is ignored, as Spring Boot does
+        this.virtualThreads = virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMs = lingerMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        workers = Executors.newFixedThreadPool(workerCount, workerThreadFactory());
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workLoop);
+        }
+    }
+
+    /**
+     * Workers spend nearly all their time blocked on the judge's HTTP API, so with virtual
+     * threads {@code judge.workers} can be raised well beyond the core count.
+     */
+    private ThreadFactory workerThreadFactory() {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor("judge-worker-").getVirtualThreadFactory();
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "judge-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+
+        // Hand buffered work back so another node can claim it without waiting for the lease.
+        List<JudgeTask> unstarted = new ArrayList<>();
+        queue.drainTo(unstarted);
+        List<Long> ids = new ArrayList<>(unstarted.size());
+        for (JudgeTask task : unstarted) {
+            ids.add(task.getSubmissionId());
+            inFlight.remove(task.getSubmissionId());
+        }
+        try {
+            submissionQueue.release(ids);
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} judge leases on shutdown; they will expire", ids.size(), e);
+        }
+
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSubmissionCreated(SubmissionCreatedEvent event) {
+        if (queue.remainingCapacity() == 0) {
+            return;
+        }
+        JudgeTask task = event.getTask();
+        if (submissionQueue.claim(task.getSubmissionId()) && !enqueue(task)) {
+            submissionQueue.release(List.of(task.getSubmissionId()));
+        }
+    }
+
+    /**
+     * Offers an already claimed task without blocking. Returns false when the buffer is full.
+     */
+    public boolean enqueue(JudgeTask task) {
+        if (!inFlight.add(task.getSubmissionId())) {
+            return true;
+        }
+        if (!queue.offer(task)) {
+            inFlight.remove(task.getSubmissionId());
+            log.warn("Judge queue full, submission {} deferred", task.getSubmissionId());
+            return false;
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Scheduled(fixedDelayString = "${judge.claim-interval-ms:1000}")
+    public void claimPending() {
+        int capacity = queue.remainingCapacity();
+        while (running && capacity > 0) {
+            List<JudgeTask> claimed = submissionQueue.claimBatch(Math.min(batchSize, capacity));
+            List<Long> overflow = new ArrayList<>();
+            for (JudgeTask task : claimed) {
+                if (!enqueue(task)) {
+                    overflow.add(task.getSubmissionId());
+                }
+            }
+            if (!overflow.isEmpty()) {
+                submissionQueue.release(overflow);
+            }
+
+            if (claimed.size() < Math.min(batchSize, capacity) || !overflow.isEmpty()) {
+                return;
+            }
+            capacity = queue.remainingCapacity();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${judge.lease-renew-interval-ms:40000}")
+    public void renewLeases() {
+        if (!inFlight.isEmpty()) {
+            submissionQueue.renew(new ArrayList<>(inFlight));
+        }
+    }
+
+    private void workLoop() {
+        List<JudgeTask> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Tasks already taken keep their lease until it expires and are then re-claimed.
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                judge(batch);
+            } finally {
+                for (JudgeTask task : batch) {
+                    inFlight.remove(task.getSubmissionId());
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Blocks for the first task, then keeps collecting until the batch is full or the
+     * linger time since the first task has elapsed.
+     */
+    private void collectBatch(List<JudgeTask> batch) throws InterruptedException {
+        batch.add(queue.take());
+        queue.drainTo(batch, batchSize - batch.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            JudgeTask next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * Sends the batch to the judge and hands verdicts to the sink. A failed judge call or a
+     * PENDING result is not a verdict: the lease is given back so the submission is judged
+     * again, here or on another node.
+     */
+    private void judge(List<JudgeTask> batch) {
+        List<JudgeResult> results;
+        long start = System.nanoTime();
+        try {
+            results = batch.size() == 1
+                    ? List.of(judgeClient.execute(batch.get(0)))
+                    : judgeClient.executeBatch(batch);
+        } catch (RuntimeException e) {
+            log.warn("Judge call failed for batch of {} submissions; releasing them for retry", batch.size(), e);
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (JudgeTask task : batch) {
+                ids.add(task.getSubmissionId());
+            }
+            release(ids);
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics.recordJudgeBatch(batch.size());
+        for (JudgeTask task : batch) {
+            metrics.recordJudgeRoundTrip(task.getLanguageCode(), elapsed);
+        }
+
+        List<Long> unfinished = new ArrayList<>();
+        for (JudgeResult result : results) {
+            if (result.getStatus() == Submission.Status.PENDING) {
+                // Judge has not finished; give the claim back instead of writing a non-verdict.
+                unfinished.add(result.getSubmissionId());
+                continue;
+            }
+
+            resultSink.submit(result);
+        }
+        release(unfinished);
+    }
+
+    /**
+     * Gives leases back. On shutdown the worker has been interrupted, which would make the
+     * connection pool refuse the release, so the flag is cleared for the call and restored.
+     */
+    private void release(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        boolean interrupted = Thread.interrupted();
+        try {
+            submissionQueue.release(ids);
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} judge leases; they will expire", ids.size(), e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
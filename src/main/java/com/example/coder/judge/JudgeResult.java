@@ -0,0 +1,33 @@
+package com.example.coder.judge;
+
+import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.model.Submission;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeResult {
+    private Long submissionId;
+    private Submission.Status status;
+    private String stdout;
+    private String stderr;
+    private String compileOutput;
+    private Double time;
+
+    public static JudgeResult error(Long submissionId, String message) {
+        return new JudgeResult(submissionId, Submission.Status.ERROR, null, message, null, null);
+    }
+
+    public SubmissionUpdateDTO toUpdateDTO() {
+        SubmissionUpdateDTO dto = new SubmissionUpdateDTO();
+        dto.setStatus(status.name());
+        dto.setStdout(stdout);
+        dto.setStderr(stderr);
+        dto.setCompileOutput(compileOutput);
+        dto.setTime(time);
+        return dto;
+    }
+}
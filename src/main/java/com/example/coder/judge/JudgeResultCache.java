@@ -0,0 +1,173 @@
+package com.example.coder.judge;
+
+import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.config.CacheConfig;
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.JudgeResultCacheEntry;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.repo.JudgeResultCacheRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reuses verdicts for identical resubmissions instead of judging them again.
+ * <p>
+ * A submission's result key is the SHA-256 of its exercise id, the exercise's test version,
+ * the judge language code and the SHA-256 of its normalized source (line endings unified,
+ * byte order mark and blank lines at the end dropped). Changing an exercise's sample input or output
+ * bumps its test version, so results judged against old tests stop matching.
+ * <p>
+ * Lookups check a size-bounded in-memory tier ({@code judge.result-cache.max-bytes}) and then
+ * the {@code judge_result_cache} table, which survives restarts and is shared by all nodes.
+ * Only SUCCESS and FAIL verdicts are stored: ERROR also covers judge outages, which must not
+ * stick to the source. Rows older than {@code judge.result-cache.ttl-days} are deleted, and
+ * memory entries expire after the same time.
+ */
+@Slf4j
+@Component
+public class JudgeResultCache {
+
+    // Changes whenever normalization does, so keys stored under older rules stop matching
+    private static final String KEY_VERSION = "v2";
+    private static final Set<Submission.Status> CACHEABLE = EnumSet.of(Submission.Status.SUCCESS, Submission.Status.FAIL);
+
+    private final JudgeResultCacheRepo repo;
+    private final SubmissionMetrics metrics;
+    private final Cache cache;
+    private final boolean enabled;
+    private final int ttlDays;
+
+    public JudgeResultCache(
+            JudgeResultCacheRepo repo,
+            SubmissionMetrics metrics,
+            CacheManager cacheManager,
+            @Value("${judge.result-cache.enabled:true}") boolean enabled,
+            @Value("${judge.result-cache.ttl-days:30}") int ttlDays) {
+        this.repo = repo;
+        this.metrics = metrics;
+        this.cache = cacheManager.getCache(CacheConfig.JUDGE_RESULTS);
+        this.enabled = enabled;
+        this.ttlDays = ttlDays;
+    }
+
+    public String keyFor(Exercises exercise, Languages language, String sourceCode) {
+        String sourceHash = sha256(normalize(sourceCode));
+        return sha256(KEY_VERSION + ":" + exercise.getId() + ":" + exercise.getTestVersion() + ":"
+                + language.getCode() + ":" + sourceHash);
+    }
+
+    public Optional<CachedResult> lookup(String resultKey) {
+        if (!enabled || resultKey == null) {
+            return Optional.empty();
+        }
+        CachedResult cached = cache.get(resultKey, CachedResult.class);
+        if (cached == null) {
+            cached = repo.findById(resultKey).map(CachedResult::from).orElse(null);
+            if (cached != null) {
+                cache.put(resultKey, cached);
+            }
+        }
+        metrics.recordResultCacheLookup(cached != null);
+        return Optional.ofNullable(cached);
+    }
+
+    /**
+     * Stores a judged submission's verdict under its result key. Call after the result has
+     * been applied to the entity.
+     */
+    public void store(Submission submission) {
+        if (!enabled || submission.getResultKey() == null || !CACHEABLE.contains(submission.getStatus())) {
+            return;
+        }
+        CachedResult result = new CachedResult(submission.getStatus(), submission.getStdout(),
+                submission.getStderr(), submission.getCompileOutput(), submission.getTime());
+        repo.insertIfAbsent(submission.getResultKey(), result.status().name(), result.stdout(),
+                result.stderr(), result.compileOutput(), result.time());
+        cache.put(submission.getResultKey(), result);
+    }
+
+    @Scheduled(
+            initialDelayString = "${judge.result-cache.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${judge.result-cache.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = repo.deleteCreatedBefore(LocalDateTime.now().minusDays(ttlDays));
+        if (deleted > 0) {
+            log.debug("Deleted {} judge results older than {} days", deleted, ttlDays);
+        }
+    }
+
+    /**
+     * Unifies line endings and drops a byte order mark and the line breaks at the end of the
+     * file. Whitespace inside lines is kept: within a multi-line string literal or a heredoc it
+     * is part of the program's output.
+     */
+    static String normalize(String source) {
+        if (source == null) {
+            return "";
+        }
+        String text = source.startsWith("\uFEFF") ? source.substring(1) : source;
+        text = text.replace("\r\n", "\n").replace('\r', '\n');
+
+        int end = text.length();
+        while (end > 0 && text.charAt(end - 1) == '\n') {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record CachedResult(Submission.Status status, String stdout, String stderr, String compileOutput,
+                               Double time) {
+
+        static CachedResult from(JudgeResultCacheEntry entry) {
+            return new CachedResult(entry.getStatus(), entry.getStdout(), entry.getStderr(),
+                    entry.getCompileOutput(), entry.getTime());
+        }
+
+        /**
+         * Approximate retained size in bytes, used to bound the in-memory tier.
+         */
+        public int weight() {
+            return 64 + 2 * (length(stdout) + length(stderr) + length(compileOutput));
+        }
+
+        public SubmissionUpdateDTO toUpdate() {
+            SubmissionUpdateDTO update = new SubmissionUpdateDTO();
+            update.setStatus(status.name());
+            update.setStdout(stdout);
+            update.setStderr(stderr);
+            update.setCompileOutput(compileOutput);
+            update.setTime(time);
+            return update;
+        }
+
+        private static int length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+}
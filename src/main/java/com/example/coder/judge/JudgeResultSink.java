@@ -0,0 +1,175 @@
+package com.example.coder.judge;
+
+import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.services.SubmissionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for judge verdicts.
+ * <p>
+ * Workers hand results over without touching the database; a single writer thread coalesces
+ * up to {@code judge.results.batch-size} of them, waiting at most
+ * {@code judge.results.flush-interval-ms} for a batch to fill, and stores each batch in one
+ * transaction. When the buffer is full the submitting worker flushes itself, which slows the
+ * judge down instead of dropping verdicts.
+ * <p>
+ * Buffered results are written out on shutdown. If the process dies instead, the leases of
+ * their submissions expire and the submissions are judged again.
+ */
+@Slf4j
+@Component
+public class JudgeResultSink {
+
+    private final SubmissionService submissionService;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<JudgeResult> buffer;
+    // Held by the writer while it stores a batch, so shutdown never interrupts a write
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private Thread writer;
+    private volatile boolean running;
+    // Taken by the writer but not stored when it stopped; read after join()
+    private List<JudgeResult> unwritten = List.of();
+
+    public JudgeResultSink(
+            SubmissionService submissionService,
+            @Value("${judge.results.batch-size:50}") int batchSize,
+            @Value("${judge.results.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${judge.results.queue-capacity:5000}") int queueCapacity) {
+        this.submissionService = submissionService;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.buffer = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "judge-result-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writeLock.lock();
+        try {
+            running = false;
+            writer.interrupt();
+        } finally {
+            writeLock.unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<JudgeResult> remaining = new ArrayList<>(unwritten);
+        buffer.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+        if (!remaining.isEmpty()) {
+            log.info("Flushed {} buffered judge results on shutdown", remaining.size());
+        }
+    }
+
+    public void submit(JudgeResult result) {
+        while (!buffer.offer(result)) {
+            List<JudgeResult> batch = new ArrayList<>(batchSize);
+            buffer.drainTo(batch, batchSize);
+            write(batch);
+        }
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    private void writeLoop() {
+        List<JudgeResult> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                unwritten = batch;
+                return;
+            }
+
+            writeLock.lock();
+            try {
+                if (!running) {
+                    unwritten = batch;
+                    return;
+                }
+                write(batch);
+            } finally {
+                writeLock.unlock();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Blocks for the first result, then keeps collecting until the batch is full or the flush
+     * interval since that result has elapsed.
+     */
+    private void collectBatch(List<JudgeResult> batch) throws InterruptedException {
+        batch.add(buffer.take());
+        buffer.drainTo(batch, batchSize - batch.size());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            JudgeResult next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            buffer.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * Stores a batch in one transaction. If that fails, falls back to one transaction per
+     * result so a single bad row cannot take the rest of the batch down with it. Both go
+     * through the lease check, so a stale worker never overwrites a newer verdict.
+     */
+    private void write(List<JudgeResult> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // A later verdict for the same submission wins
+        Map<Long, SubmissionUpdateDTO> updates = new LinkedHashMap<>();
+        for (JudgeResult result : batch) {
+            updates.put(result.getSubmissionId(), result.toUpdateDTO());
+        }
+
+        try {
+            submissionService.updateSubmissionResults(updates);
+        } catch (RuntimeException e) {
+            log.warn("Batch write of {} judge results failed, retrying one by one", updates.size(), e);
+            updates.forEach((id, update) -> {
+                try {
+                    submissionService.updateSubmissionResults(Map.of(id, update));
+                } catch (RuntimeException single) {
+                    log.error("Failed to store judge result for submission {}", id, single);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.coder.judge;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeTask {
+    private Long submissionId;
+    private Integer languageCode;
+    private String sourceCode;
+    private String stdin;
+    private String expectedOutput;
+}
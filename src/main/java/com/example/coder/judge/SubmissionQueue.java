@@ -0,0 +1,103 @@
+package com.example.coder.judge;
+
+import com.example.coder.repo.SubmissionRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Durable judge queue backed by the {@code submissions} table.
+ * <p>
+ * A PENDING row is claimable when it has no lease or its lease has expired. Claims take row
+ * locks with {@code FOR UPDATE SKIP LOCKED}, so several nodes can claim concurrently without
+ * blocking each other or picking the same rows. A node renews leases while it judges; if it
+ * dies, its leases run out and the rows become claimable again. Lease times use the database
+ * clock so nodes do not need synchronized clocks.
+ */
+@Slf4j
+@Component
+public class SubmissionQueue {
+
+    private final SubmissionRepo submissionRepo;
+    private final String nodeId;
+    private final int leaseSeconds;
+
+    public SubmissionQueue(
+            SubmissionRepo submissionRepo,
+            @Value("${judge.node-id:}") String nodeId,
+            @Value("${judge.lease-seconds:120}") int leaseSeconds) {
+        this.submissionRepo = submissionRepo;
+        this.nodeId = nodeId.isEmpty() ? defaultNodeId() : nodeId;
+        this.leaseSeconds = leaseSeconds;
+        log.info("Judge queue node id: {}", this.nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Transactional
+    public List<JudgeTask> claimBatch(int limit) {
+        List<Long> ids = submissionRepo.lockClaimableIds(limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        submissionRepo.claimLocked(ids, nodeId, leaseSeconds);
+        return submissionRepo.findJudgeTasksByIds(ids);
+    }
+
+    /**
+     * Claims one specific submission, e.g. right after it was created. Runs in its own
+     * transaction because it is called from after-commit callbacks.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean claim(Long submissionId) {
+        return submissionRepo.claimIfAvailable(submissionId, nodeId, leaseSeconds) == 1;
+    }
+
+    @Transactional
+    public void renew(Collection<Long> submissionIds) {
+        if (!submissionIds.isEmpty()) {
+            submissionRepo.renewLeases(submissionIds, nodeId, leaseSeconds);
+        }
+    }
+
+    /**
+     * Locks and returns those of the given submissions this node still holds: PENDING and not
+     * re-claimed by another node since. A lease that ran out without being re-claimed still
+     * counts. Runs in the caller's transaction so the verdict is written under these locks.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> lockHeld(Collection<Long> submissionIds) {
+        if (submissionIds.isEmpty()) {
+            return List.of();
+        }
+        return submissionRepo.lockHeldIds(submissionIds, nodeId);
+    }
+
+    @Transactional
+    public void release(Collection<Long> submissionIds) {
+        if (!submissionIds.isEmpty()) {
+            submissionRepo.releaseLeases(submissionIds, nodeId);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = Optional.ofNullable(System.getenv("HOSTNAME")).orElse("node");
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.coder.leaderboard;
+
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import com.example.coder.events.SubmissionDeletedEvent;
+import com.example.coder.events.SubmissionStatusEvent;
+import com.example.coder.model.Submission;
+import com.example.coder.repo.SubmissionRepo;
+import com.example.coder.support.ReplayingRebuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory leaderboards: one per exercise (ranked by best time) and one global (ranked by
+ * solved count, then the sum of best times).
+ * <p>
+ * Each board is an order-statistic tree, so a submission turning SUCCESS updates both of its
+ * boards in O(log n), and top-K and "rank of user X" queries never touch the database. The
+ * boards are built from the best successful time per user and exercise once the application
+ * is ready and rebuilt periodically to pick up verdicts written by other nodes. Until the
+ * first build finishes {@link #isReady()} is false.
+ * <p>
+ * A solve can also go away: its submission is deleted or re-judged to another status. The
+ * user's best time for that exercise is then read back from the database, which is one
+ * indexed query and only happens for users who are on the board.
+ */
+@Slf4j
+@Component
+public class LeaderboardEngine {
+
+    private final SubmissionRepo submissionRepo;
+    private final ReplayingRebuilder<State> boards = new ReplayingRebuilder<>(new State());
+
+    public LeaderboardEngine(SubmissionRepo submissionRepo) {
+        this.submissionRepo = submissionRepo;
+    }
+
+    public boolean isReady() {
+        return boards.isReady();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${leaderboard.rebuild-interval-ms:600000}",
+            fixedDelayString = "${leaderboard.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds every board from the submissions table without blocking queries. Successes that
+     * commit while the rebuild is loading are replayed on top of the new boards. A call made
+     * while another rebuild is running returns without doing anything.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        State rebuilt = boards.rebuild(() -> {
+            State loaded = new State();
+            for (SubmissionRepo.BestTimeView row : submissionRepo.findBestTimes(Submission.Status.SUCCESS)) {
+                loaded.recordSuccess(row.getUserId(), row.getExerciseId(), row.getBestTime());
+            }
+            return loaded;
+        });
+        if (rebuilt == null) {
+            log.debug("Leaderboard rebuild already running, skipping");
+            return;
+        }
+        log.debug("Leaderboards rebuilt: {} exercises, {} users in {} ms",
+                rebuilt.exercises.size(), rebuilt.global.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(SubmissionStatusEvent event) {
+        SubmissionStatusDTO status = event.getStatus();
+        if (Submission.Status.SUCCESS.name().equals(status.getStatus())) {
+            recordSuccess(status.getUserId(), status.getExerciseId(), status.getTime());
+        } else {
+            // May be a re-judged solve
+            reloadBestTime(status.getUserId(), status.getExerciseId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSubmissionDeleted(SubmissionDeletedEvent event) {
+        reloadBestTime(event.getUserId(), event.getExerciseId());
+    }
+
+    /**
+     * Records an accepted submission. Only a user's first solve or a faster time changes the
+     * boards; slower re-submissions are no-ops.
+     */
+    public void recordSuccess(Long userId, Long exerciseId, Double time) {
+        if (userId == null || exerciseId == null) {
+            return;
+        }
+        boards.apply(s -> s.recordSuccess(userId, exerciseId, time));
+    }
+
+    /**
+     * Replaces a user's standing on an exercise with their best time in the database. Used
+     * when a solve may have been removed; does nothing if the user is not on that board.
+     */
+    public void reloadBestTime(Long userId, Long exerciseId) {
+        if (userId == null || exerciseId == null) {
+            return;
+        }
+        boolean onBoard = boards.read(s -> {
+            Board board = s.board(exerciseId);
+            return board != null && board.get(userId) != null;
+        });
+        if (!onBoard) {
+            return;
+        }
+
+        Optional<Double> best = submissionRepo.findBestTime(userId, exerciseId, Submission.Status.SUCCESS)
+                .map(row -> row.getBestTime() == null ? Double.POSITIVE_INFINITY : row.getBestTime());
+        boards.apply(s -> {
+            s.removeSolve(userId, exerciseId);
+            best.ifPresent(time -> s.recordSuccess(userId, exerciseId, time));
+        });
+    }
+
+    /**
+     * The best {@code limit} standings of an exercise, or of the global board when
+     * {@code exerciseId} is null.
+     */
+    public List<RankedStanding> top(Long exerciseId, int limit) {
+        return boards.read(s -> {
+            Board board = s.board(exerciseId);
+            if (board == null) {
+                return List.of();
+            }
+            List<Standing> first = board.ranking.first(limit);
+            List<RankedStanding> ranked = new ArrayList<>(first.size());
+            for (int i = 0; i < first.size(); i++) {
+                ranked.add(new RankedStanding(i + 1, first.get(i)));
+            }
+            return ranked;
+        });
+    }
+
+    /**
+     * A user's standing on an exercise board, or on the global board when {@code exerciseId}
+     * is null. Empty if the user has not solved it.
+     */
+    public Optional<RankedStanding> rankOf(Long exerciseId, Long userId) {
+        return boards.read(s -> {
+            Board board = s.board(exerciseId);
+            Standing standing = board == null ? null : board.byUser.get(userId);
+            if (standing == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new RankedStanding(board.ranking.indexOf(standing) + 1, standing));
+        });
+    }
+
+    public int size(Long exerciseId) {
+        return boards.read(s -> {
+            Board board = s.board(exerciseId);
+            return board == null ? 0 : board.size();
+        });
+    }
+
+    private static final class Board {
+        private final Map<Long, Standing> byUser = new HashMap<>();
+        private final RankedTree<Standing> ranking = new RankedTree<>(Standing.RANKING);
+
+        Standing get(long userId) {
+            return byUser.get(userId);
+        }
+
+        void put(Standing standing) {
+            Standing previous = byUser.put(standing.getUserId(), standing);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            ranking.add(standing);
+        }
+
+        Standing remove(long userId) {
+            Standing previous = byUser.remove(userId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            return previous;
+        }
+
+        int size() {
+            return byUser.size();
+        }
+    }
+
+    /**
+     * Board contents. Only touched through {@link ReplayingRebuilder}, which guards it.
+     */
+    private static final class State {
+        private final Map<Long, Board> exercises = new HashMap<>();
+        private final Board global = new Board();
+
+        Board board(Long exerciseId) {
+            return exerciseId == null ? global : exercises.get(exerciseId);
+        }
+
+        void recordSuccess(long userId, long exerciseId, Double time) {
+            double seconds = time == null ? Double.POSITIVE_INFINITY : time;
+            Board board = exercises.computeIfAbsent(exerciseId, id -> new Board());
+            Standing best = board.get(userId);
+            if (best != null && seconds >= best.getTime()) {
+                return;
+            }
+            board.put(new Standing(userId, 1, seconds));
+
+            // Solves without a reported time count towards solved but add nothing to the total
+            Standing total = global.get(userId);
+            int solved = total == null ? 0 : total.getSolved();
+            double totalTime = total == null ? 0 : total.getTime();
+            if (best == null) {
+                solved++;
+            } else {
+                totalTime -= knownTime(best.getTime());
+            }
+            global.put(new Standing(userId, solved, totalTime + knownTime(seconds)));
+        }
+
+        void removeSolve(long userId, long exerciseId) {
+            Board board = exercises.get(exerciseId);
+            Standing best = board == null ? null : board.remove(userId);
+            if (best == null) {
+                return;
+            }
+            if (board.size() == 0) {
+                exercises.remove(exerciseId);
+            }
+
+            Standing total = global.remove(userId);
+            if (total != null && total.getSolved() > 1) {
+                global.put(new Standing(userId, total.getSolved() - 1, total.getTime() - knownTime(best.getTime())));
+            }
+        }
+
+        private static double knownTime(double seconds) {
+            return Double.isInfinite(seconds) ? 0 : seconds;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.coder.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RankedStanding {
+    // 1-based
+    private final int rank;
+    private final Standing standing;
+}
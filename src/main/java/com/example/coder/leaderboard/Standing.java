@@ -0,0 +1,26 @@
+package com.example.coder.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Comparator;
+
+/**
+ * One user's position on a board: most solved first, then fastest, then lowest user id so
+ * every standing is distinct. Immutable; a change replaces the standing in its board.
+ */
+@Getter
+@AllArgsConstructor
+public class Standing {
+
+    static final Comparator<Standing> RANKING = Comparator
+            .comparingInt(Standing::getSolved).reversed()
+            .thenComparingDouble(Standing::getTime)
+            .thenComparingLong(Standing::getUserId);
+
+    private final long userId;
+    private final int solved;
+    // Seconds: best time on an exercise board (infinite if the judge reported none),
+    // sum of best known times on the global board
+    private final double time;
+}
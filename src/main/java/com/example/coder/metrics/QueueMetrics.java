@@ -0,0 +1,43 @@
+package com.example.coder.metrics;
+
+import com.example.coder.judge.JudgeDispatcher;
+import com.example.coder.judge.JudgeResultSink;
+import com.example.coder.security.PasswordHasher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges for the in-process work queues, sampled when the registry is scraped. Cache hit and
+ * miss counts come from Spring Boot's cache metrics, since the Caffeine caches record stats.
+ */
+@Component
+public class QueueMetrics implements MeterBinder {
+
+    private final JudgeDispatcher judgeDispatcher;
+    private final JudgeResultSink judgeResultSink;
+    private final PasswordHasher passwordHasher;
+
+    public QueueMetrics(JudgeDispatcher judgeDispatcher, JudgeResultSink judgeResultSink, PasswordHasher passwordHasher) {
+        this.judgeDispatcher = judgeDispatcher;
+        this.judgeResultSink = judgeResultSink;
+        this.passwordHasher = passwordHasher;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("coder.judge.queue.depth", judgeDispatcher, JudgeDispatcher::getQueueDepth)
+                .description("Claimed submissions waiting for a judge worker")
+                .register(registry);
+        Gauge.builder("coder.judge.results.queue.depth", judgeResultSink, JudgeResultSink::getQueueDepth)
+                .description("Verdicts waiting to be written")
+                .register(registry);
+        Gauge.builder("coder.password.hash.queue.depth", passwordHasher, PasswordHasher::getQueueDepth)
+                .description("Password hashes waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("coder.password.hash.active", passwordHasher, PasswordHasher::getActiveCount)
+                .description("Password hashes in progress")
+                .register(registry);
+    }
+}
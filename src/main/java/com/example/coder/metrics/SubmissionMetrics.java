@@ -0,0 +1,130 @@
+package com.example.coder.metrics;
+
+import com.example.coder.model.Submission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Meters for the submission lifecycle: create latency, time spent PENDING, judge round trips
+ * and the verdict distribution.
+ * <p>
+ * Submissions are tagged with the judge language code rather than the language name, so a
+ * renamed {@code Languages} entry keeps its series. Verdicts written inside a transaction are
+ * counted once it commits; a rolled back write is retried and would otherwise count twice.
+ */
+@Component
+public class SubmissionMetrics {
+
+    static final String CREATE = "coder.submissions.create";
+    static final String PENDING = "coder.submissions.pending";
+    static final String VERDICTS = "coder.submissions.verdicts";
+    static final String JUDGE_ROUND_TRIP = "coder.judge.round.trip";
+    static final String JUDGE_BATCH_SIZE = "coder.judge.batch.size";
+    static final String RESULT_CACHE = "coder.judge.result.cache";
+    static final String REJECTED = "coder.submissions.rejected";
+
+    private final MeterRegistry registry;
+
+    public SubmissionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void recordCreate(long nanos, boolean success) {
+        Timer.builder(CREATE)
+                .description("Time to validate and persist a new submission")
+                .tag("outcome", success ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    /**
+     * Counts a status change. Leaving PENDING also records how long the submission waited for
+     * its verdict, measured from its creation time.
+     */
+    public void recordVerdict(Submission submission, Submission.Status to) {
+        Submission.Status from = submission.getStatus();
+        if (to == from) {
+            return;
+        }
+        String language = languageTag(submission.getLanguage() != null ? submission.getLanguage().getCode() : null);
+        LocalDateTime createdAt = submission.getCreatedAt();
+        LocalDateTime decidedAt = LocalDateTime.now();
+
+        afterCommit(() -> {
+            Counter.builder(VERDICTS)
+                    .description("Submission verdicts written")
+                    .tag("status", to.name())
+                    .tag("language", language)
+                    .register(registry)
+                    .increment();
+
+            if (from == Submission.Status.PENDING && createdAt != null) {
+                Timer.builder(PENDING)
+                        .description("Time from submission to verdict")
+                        .tag("status", to.name())
+                        .tag("language", language)
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(Duration.between(createdAt, decidedAt));
+            }
+        });
+    }
+
+    /**
+     * Records one judge call for a task. Batched calls record the batch's duration for every
+     * task in it, since that is how long each of them waited on the judge.
+     */
+    public void recordJudgeRoundTrip(Integer languageCode, long nanos) {
+        Timer.builder(JUDGE_ROUND_TRIP)
+                .description("Time a submission spent in a judge call")
+                .tag("language", languageTag(languageCode))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    public void recordJudgeBatch(int size) {
+        registry.summary(JUDGE_BATCH_SIZE).record(size);
+    }
+
+    public void recordRejected(String reason) {
+        Counter.builder(REJECTED)
+                .description("Submissions turned away by admission control")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordResultCacheLookup(boolean hit) {
+        Counter.builder(RESULT_CACHE)
+                .description("Judge result cache lookups for new submissions")
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    private static String languageTag(Integer languageCode) {
+        return languageCode != null ? languageCode.toString() : "unknown";
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
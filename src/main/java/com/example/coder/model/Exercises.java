@@ -2,6 +2,7 @@ package com.example.coder.model;
 
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonValue;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -11,7 +12,9 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
@@ -23,7 +26,8 @@ import java.util.stream.Collectors;
 public class Exercises {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exercises_seq")
+    @SequenceGenerator(name = "exercises_seq", sequenceName = "exercises_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title", nullable = false)
@@ -42,14 +46,29 @@ public class Exercises {
     @Column(name = "sample_output", columnDefinition = "TEXT")
     private String sampleOutput;
 
+    // Display copy of the topic names; queries go through topicSet
     @Column(name = "topics", columnDefinition = "TEXT")
     private String topics;
 
+    @JsonIgnore
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "exercise_topics",
+            joinColumns = @JoinColumn(name = "exercise_id"),
+            inverseJoinColumns = @JoinColumn(name = "topic_id"),
+            indexes = @Index(name = "idx_exercise_topics_topic", columnList = "topic_id, exercise_id"))
+    private Set<Topic> topicSet = new HashSet<>();
+
     @Column(name = "created_at",
             columnDefinition = "DATETIME DEFAULT CURRENT_TIMESTAMP",
             updatable = false)
     private LocalDateTime createdAt;
 
+    // Bumped whenever the sample input or output changes; part of every judge result key
+    @JsonIgnore
+    @Column(name = "test_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int testVersion;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,46 @@
+package com.example.coder.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A judge verdict stored under the content address of what was judged, see
+ * {@code JudgeResultCache}. Written with a native insert-ignore, never through JPA.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "judge_result_cache", indexes = {
+        @Index(name = "idx_judge_result_cache_created", columnList = "created_at")
+})
+public class JudgeResultCacheEntry {
+
+    @Id
+    @Column(name = "result_key", length = 64)
+    private String resultKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Submission.Status status;
+
+    @Column(columnDefinition = "TEXT")
+    private String stdout;
+
+    @Column(columnDefinition = "TEXT")
+    private String stderr;
+
+    @Column(name = "compile_output", columnDefinition = "TEXT")
+    private String compileOutput;
+
+    private Double time;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
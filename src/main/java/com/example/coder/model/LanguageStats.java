@@ -0,0 +1,35 @@
+package com.example.coder.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-language submission counters; see {@link UserStats}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "language_stats")
+public class LanguageStats {
+
+    @Id
+    @Column(name = "language_id")
+    private Long languageId;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "success_count", nullable = false)
+    private long successCount;
+
+    @Column(name = "fail_count", nullable = false)
+    private long failCount;
+
+    @Column(name = "error_count", nullable = false)
+    private long errorCount;
+}
@@ -15,7 +15,8 @@ import lombok.Setter;
 public class Languages {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "languages_seq")
+    @SequenceGenerator(name = "languages_seq", sequenceName = "languages_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false, length = 50)
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDateTime;
 
@@ -13,10 +14,15 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_submissions_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_submissions_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_submissions_user_exercise_status", columnList = "user_id, exercise_id, status")
+})
 public class Submission {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submissions_seq")
+    @SequenceGenerator(name = "submissions_seq", sequenceName = "submissions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -31,18 +37,27 @@ public class Submission {
     @JoinColumn(name = "language_id", nullable = false)
     private Languages language;
 
+    // TEXT columns are lazy (bytecode enhancement) so status reads and updates don't drag them along
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("source")
     @Column(name = "source_code", nullable = false, columnDefinition = "TEXT")
     private String sourceCode;
 
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("output")
     @Column(columnDefinition = "TEXT")
     private String stdout;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("output")
     @Column(columnDefinition = "TEXT")
     private String stderr;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("output")
     @Column(name = "compile_output", columnDefinition = "TEXT")
     private String compileOutput;
 
@@ -51,6 +66,17 @@ public class Submission {
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Judge lease: the node currently judging this submission and until when it holds it
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    // Content address of the judged inputs, see JudgeResultCache
+    @Column(name = "result_key", length = 64)
+    private String resultKey;
+
     public enum Status {
         PENDING, SUCCESS, FAIL, ERROR
     }
@@ -0,0 +1,40 @@
+package com.example.coder.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Locale;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "topics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_topics_slug", columnNames = "slug")
+})
+public class Topic {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topics_seq")
+    @SequenceGenerator(name = "topics_seq", sequenceName = "topics_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    // Lower-cased name, used for exact-match lookups
+    @Column(name = "slug", nullable = false, length = 100)
+    private String slug;
+
+    // Maintained on every exercise write, so topic listings never aggregate the join table
+    @Column(name = "exercise_count", nullable = false)
+    private int exerciseCount;
+
+    public static String slugOf(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.coder.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Per-user submission counters, maintained on every submission write and periodically
+ * reconciled against {@code submissions}. Written with native upserts, never through JPA.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_stats")
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "success_count", nullable = false)
+    private long successCount;
+
+    @Column(name = "fail_count", nullable = false)
+    private long failCount;
+
+    @Column(name = "error_count", nullable = false)
+    private long errorCount;
+
+    // Distinct exercises with at least one SUCCESS
+    @Column(name = "solved_exercises", nullable = false)
+    private long solvedExercises;
+}
@@ -1,5 +1,6 @@
 package com.example.coder.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -17,7 +18,8 @@ import java.time.LocalDateTime;
 public class Users {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "username")
@@ -33,6 +35,11 @@ public class Users {
     @Column(name = "role", columnDefinition = "ENUM('USER', 'ADMIN') default 'USER'")
     private Role role = Role.USER;
 
+    // Bumped whenever issued tokens must stop working (role, password or username change)
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int tokenVersion;
+
     @Column(name = "created_at",
             columnDefinition = "DATETIME DEFAULT CURRENT_TIMESTAMP",
             updatable = false)
@@ -0,0 +1,59 @@
+package com.example.coder.repo;
+
+import com.example.coder.model.Exercises;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.function.Consumer;
+
+/**
+ * Reads the whole exercise catalog row by row, so an export holds one exercise in memory at a
+ * time instead of a list of managed entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExerciseExportRepo {
+
+    private static final String SELECT_ALL = "SELECT id, title, description, difficulty, sample_input, " +
+            "sample_output, topics, created_at FROM exercises ORDER BY id";
+    // Non-zero fetch size makes the MariaDB driver stream rows instead of buffering the result
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Passes every exercise, in id order, to {@code consumer}. The exercises are plain objects,
+     * not managed entities, and their topic links are not loaded.
+     */
+    public void forEach(Consumer<Exercises> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(FETCH_SIZE);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(map(rs)));
+    }
+
+    private static Exercises map(ResultSet rs) throws SQLException {
+        Exercises exercise = new Exercises();
+        exercise.setId(rs.getLong("id"));
+        exercise.setTitle(rs.getString("title"));
+        exercise.setDescription(rs.getString("description"));
+        String difficulty = rs.getString("difficulty");
+        exercise.setDifficulty(difficulty == null ? null : Exercises.Difficulty.valueOf(difficulty));
+        exercise.setSampleInput(rs.getString("sample_input"));
+        exercise.setSampleOutput(rs.getString("sample_output"));
+        exercise.setTopics(rs.getString("topics"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        exercise.setCreatedAt(createdAt == null ? null : createdAt.toLocalDateTime());
+        return exercise;
+    }
+}
@@ -15,6 +15,9 @@ public interface ExercisesRepo extends JpaRepository<Exercises, Long> {
     @Query("select e from Exercises e where lower(e.title) = lower(:title)")
     Optional<Exercises> findByTitle(@Param("title") String title);
 
+    @Query("select lower(e.title) from Exercises e")
+    List<String> findAllTitlesLowerCase();
+
     @Query("select count(e) from Exercises  e where  lower(e.title) = lower(:title)")
     boolean existsByTitle(@Param("title") String title);
 
@@ -27,14 +30,14 @@ public interface ExercisesRepo extends JpaRepository<Exercises, Long> {
 
     List<Exercises> findAllByOrderByCreatedAtAsc();
 
-    @Query("select e from Exercises e where lower(e.topics) like lower(concat('%',:topic,'%'))")
-    List<Exercises> findByTopicsContaining(@Param("topic") String topic);
+    @Query("select e from Exercises e join e.topicSet t where t.slug = :slug order by e.createdAt desc")
+    List<Exercises> findByTopicSlug(@Param("slug") String slug);
 
-    @Query("select e from Exercises e where lower(e.topics) like lower(concat('%',:topic,'%')) and e.difficulty = :difficulty")
-    List<Exercises> findByTopicsContainingAndDifficulty(@Param("topic") String topic, @Param("difficulty") Exercises.Difficulty difficulty);
+    @Query("select e from Exercises e join e.topicSet t where t.slug = :slug and e.difficulty = :difficulty order by e.createdAt desc")
+    List<Exercises> findByTopicSlugAndDifficulty(@Param("slug") String slug, @Param("difficulty") Exercises.Difficulty difficulty);
 
-    @Query("select distinct e.topics from Exercises e where e.topics is not null and e.topics != ''")
-    List<String> findAllDistinctTopics();
+    @Query("select e from Exercises e where e.topics is not null and e.topics != '' and e.topicSet is empty")
+    List<Exercises> findWithUnlinkedTopics();
 
     @Query("select e from Exercises e where (lower(e.title) like lower(concat('%',:keyword,'%')) or lower(e.topics) like lower(concat('%',:keyword,'%')))")
     List<Exercises> findByTitleOrTopicsContaining(@Param("keyword") String keyword);
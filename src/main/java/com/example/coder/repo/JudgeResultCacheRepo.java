@@ -0,0 +1,28 @@
+package com.example.coder.repo;
+
+import com.example.coder.model.JudgeResultCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface JudgeResultCacheRepo extends JpaRepository<JudgeResultCacheEntry, String> {
+
+    // The first verdict for a key wins; a concurrent insert from another node is not an error
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO judge_result_cache " +
+            "(result_key, status, stdout, stderr, compile_output, time, created_at) " +
+            "VALUES (:resultKey, :status, :stdout, :stderr, :compileOutput, :time, NOW())", nativeQuery = true)
+    int insertIfAbsent(@Param("resultKey") String resultKey,
+                       @Param("status") String status,
+                       @Param("stdout") String stdout,
+                       @Param("stderr") String stderr,
+                       @Param("compileOutput") String compileOutput,
+                       @Param("time") Double time);
+
+    @Modifying
+    @Query("DELETE FROM JudgeResultCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,58 @@
+package com.example.coder.repo;
+
+import com.example.coder.DTOs.LanguageStatsDTO;
+import com.example.coder.model.LanguageStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LanguageStatsRepo extends JpaRepository<LanguageStats, Long> {
+
+    @Query("SELECT new com.example.coder.DTOs.LanguageStatsDTO(l.id, l.name, " +
+            "ls.pendingCount, ls.successCount, ls.failCount, ls.errorCount) " +
+            "FROM LanguageStats ls, Languages l WHERE l.id = ls.languageId ORDER BY l.name")
+    List<LanguageStatsDTO> findAllWithNames();
+
+    @Modifying
+    @Query(value = "INSERT INTO language_stats " +
+            "(language_id, pending_count, success_count, fail_count, error_count) " +
+            "VALUES (:languageId, :pending, :success, :fail, :error) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "pending_count = pending_count + VALUES(pending_count), " +
+            "success_count = success_count + VALUES(success_count), " +
+            "fail_count = fail_count + VALUES(fail_count), " +
+            "error_count = error_count + VALUES(error_count)", nativeQuery = true)
+    int addCounts(@Param("languageId") Long languageId,
+                  @Param("pending") int pending,
+                  @Param("success") int success,
+                  @Param("fail") int fail,
+                  @Param("error") int error);
+
+    /**
+     * Same difference-based repair as {@link UserStatsRepo#recomputeAll}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO language_stats " +
+            "(language_id, pending_count, success_count, fail_count, error_count) " +
+            "SELECT c.language_id, c.pending - COALESCE(l.pending_count, 0), " +
+            "c.success - COALESCE(l.success_count, 0), c.fail - COALESCE(l.fail_count, 0), " +
+            "c.error - COALESCE(l.error_count, 0) " +
+            "FROM (SELECT language_id, SUM(status = 'PENDING') AS pending, SUM(status = 'SUCCESS') AS success, " +
+            "SUM(status = 'FAIL') AS fail, SUM(status = 'ERROR') AS error " +
+            "FROM submissions GROUP BY language_id) c " +
+            "LEFT JOIN language_stats l ON l.language_id = c.language_id " +
+            "ON DUPLICATE KEY UPDATE " +
+            "language_stats.pending_count = language_stats.pending_count + VALUES(pending_count), " +
+            "language_stats.success_count = language_stats.success_count + VALUES(success_count), " +
+            "language_stats.fail_count = language_stats.fail_count + VALUES(fail_count), " +
+            "language_stats.error_count = language_stats.error_count + VALUES(error_count)", nativeQuery = true)
+    int recomputeAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM language_stats WHERE NOT EXISTS " +
+            "(SELECT 1 FROM submissions s WHERE s.language_id = language_stats.language_id)", nativeQuery = true)
+    int deleteWithoutSubmissions();
+}
@@ -0,0 +1,57 @@
+package com.example.coder.repo;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads one large TEXT column of a submission without loading the entity or its other
+ * payloads. The MariaDB driver buffers the whole column anyway, so the value is returned as
+ * a string and the connection is free again before the caller writes it to a slow client.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SubmissionPayloadRepo {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public enum Field {
+        SOURCE("source", "source_code"),
+        STDOUT("stdout", "stdout"),
+        STDERR("stderr", "stderr"),
+        COMPILE_OUTPUT("compile-output", "compile_output");
+
+        private final String pathName;
+        private final String column;
+
+        Field(String pathName, String column) {
+            this.pathName = pathName;
+            this.column = column;
+        }
+
+        public static Optional<Field> fromPath(String pathName) {
+            return Arrays.stream(values())
+                    .filter(field -> field.pathName.equalsIgnoreCase(pathName))
+                    .findFirst();
+        }
+    }
+
+    /**
+     * Empty when the submission does not exist. A null column reads as an empty string.
+     */
+    public Optional<String> find(Long submissionId, Field field) {
+        // Column name comes from the enum, never from user input
+        List<String> values = jdbcTemplate.query(
+                "SELECT " + field.column + " FROM submissions WHERE id = ?",
+                (rs, rowNum) -> {
+                    String value = rs.getString(1);
+                    return value != null ? value : "";
+                },
+                submissionId);
+        return values.stream().findFirst();
+    }
+}
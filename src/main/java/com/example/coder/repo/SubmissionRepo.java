@@ -1,6 +1,10 @@
 package com.example.coder.repo;
 
+import com.example.coder.DTOs.SubmissionSummaryDTO;
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import com.example.coder.judge.JudgeTask;
 import com.example.coder.model.Submission;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.query.Param;
@@ -8,41 +12,169 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SubmissionRepo extends JpaRepository<Submission, Long> {
-    List<Submission> findByUserIdOrderByCreatedAtDesc(Long userId);
+    // List views are built straight from one joined select; TEXT columns are fetched separately on request
+    String SUMMARY_SELECT = "SELECT new com.example.coder.DTOs.SubmissionSummaryDTO(" +
+            "s.id, u.id, u.username, e.id, e.title, l.id, l.name, s.status, s.time, s.createdAt) " +
+            "FROM Submission s JOIN s.user u JOIN s.exercise e JOIN s.language l ";
 
-    List<Submission> findByExerciseIdOrderByCreatedAtDesc(Long exerciseId);
+    interface PayloadView {
+        Long getId();
 
-    List<Submission> findByStatusOrderByCreatedAtDesc(Submission.Status status);
+        String getSourceCode();
 
-    List<Submission> findByStatusOrderByCreatedAtAsc(Submission.Status status);
+        String getStdout();
 
-    List<Submission> findByUserIdAndExerciseIdOrderByCreatedAtDesc(Long userId, Long exerciseId);
+        String getStderr();
 
-    Page<Submission> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+        String getCompileOutput();
+    }
 
-    @Query("SELECT s.status, COUNT(s) FROM Submission s WHERE s.user.id = :userId GROUP BY s.status")
-    List<Object[]> countSubmissionsByStatusForUser(@Param("userId") Long userId);
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId ORDER BY s.createdAt DESC")
+    List<SubmissionSummaryDTO> findSummariesByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT s FROM Submission s WHERE s.user.id = :userId AND s.exercise.id = :exerciseId AND s.status = 'SUCCESS' ORDER BY s.createdAt DESC")
-    List<Submission> findLatestSuccessfulSubmission(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
+    @Query(value = SUMMARY_SELECT + "WHERE u.id = :userId ORDER BY s.createdAt DESC",
+            countQuery = "SELECT COUNT(s) FROM Submission s WHERE s.user.id = :userId")
+    Page<SubmissionSummaryDTO> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Keyset pages over idx_submissions_user_created_id: pass PageRequest.of(0, n) as a plain limit
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId ORDER BY s.createdAt DESC, s.id DESC")
+    List<SubmissionSummaryDTO> findSummariesByUserIdFirstKeyset(@Param("userId") Long userId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId " +
+            "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+            "ORDER BY s.createdAt DESC, s.id DESC")
+    List<SubmissionSummaryDTO> findSummariesByUserIdBeforeKeyset(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable limit
+    );
+
+    long countByUserId(Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE e.id = :exerciseId ORDER BY s.createdAt DESC")
+    List<SubmissionSummaryDTO> findSummariesByExerciseId(@Param("exerciseId") Long exerciseId);
 
-    @Query("SELECT l.name, COUNT(s) FROM Submission s JOIN s.language l GROUP BY l.name")
-    List<Object[]> countSubmissionsByLanguage();
+    @Query(SUMMARY_SELECT + "WHERE s.status = :status ORDER BY s.createdAt ASC")
+    List<SubmissionSummaryDTO> findSummariesByStatus(@Param("status") Submission.Status status);
 
-    @Query("SELECT s FROM Submission s WHERE s.user.id = :userId " +
-            "AND (:languageId IS NULL OR s.language.id = :languageId) " +
+    @Query(SUMMARY_SELECT + "WHERE u.id = :userId AND e.id = :exerciseId ORDER BY s.createdAt DESC")
+    List<SubmissionSummaryDTO> findSummariesByUserIdAndExerciseId(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
+
+    @Query(value = SUMMARY_SELECT + "WHERE u.id = :userId " +
+            "AND (:languageId IS NULL OR l.id = :languageId) " +
             "AND (:status IS NULL OR s.status = :status) " +
-            "AND (:exerciseKeyword IS NULL OR LOWER(s.exercise.title) LIKE LOWER(CONCAT('%', :exerciseKeyword, '%'))) " +
-            "ORDER BY s.createdAt DESC")
-    Page<Submission> findByUserIdWithFilters(
+            "AND (:exerciseKeyword IS NULL OR LOWER(e.title) LIKE LOWER(CONCAT('%', :exerciseKeyword, '%'))) " +
+            "ORDER BY s.createdAt DESC",
+            countQuery = "SELECT COUNT(s) FROM Submission s JOIN s.exercise e WHERE s.user.id = :userId " +
+                    "AND (:languageId IS NULL OR s.language.id = :languageId) " +
+                    "AND (:status IS NULL OR s.status = :status) " +
+                    "AND (:exerciseKeyword IS NULL OR LOWER(e.title) LIKE LOWER(CONCAT('%', :exerciseKeyword, '%')))")
+    Page<SubmissionSummaryDTO> findSummariesByUserIdWithFilters(
             @Param("userId") Long userId,
             @Param("languageId") Long languageId,
             @Param("status") Submission.Status status,
             @Param("exerciseKeyword") String exerciseKeyword,
             Pageable pageable
     );
+
+    @Query("SELECT s.id AS id, s.sourceCode AS sourceCode, s.stdout AS stdout, s.stderr AS stderr, " +
+            "s.compileOutput AS compileOutput FROM Submission s WHERE s.id IN :ids")
+    List<PayloadView> findPayloadsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT s FROM Submission s JOIN FETCH s.user JOIN FETCH s.exercise JOIN FETCH s.language WHERE s.id = :id")
+    Optional<Submission> findDetailById(@Param("id") Long id);
+
+    // Ordered by id so batched updates lock rows in a consistent order
+    @Query("SELECT s FROM Submission s JOIN FETCH s.user JOIN FETCH s.exercise JOIN FETCH s.language " +
+            "WHERE s.id IN :ids ORDER BY s.id")
+    List<Submission> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.coder.DTOs.SubmissionStatusDTO(s.id, s.user.id, s.exercise.id, s.status, s.time) " +
+            "FROM Submission s WHERE s.id = :id")
+    Optional<SubmissionStatusDTO> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.coder.judge.JudgeTask(s.id, l.code, s.sourceCode, e.sampleInput, e.sampleOutput) " +
+            "FROM Submission s JOIN s.language l JOIN s.exercise e WHERE s.id IN :ids ORDER BY s.createdAt ASC")
+    List<JudgeTask> findJudgeTasksByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM submissions WHERE status = 'PENDING' " +
+            "AND (lease_until IS NULL OR lease_until < NOW()) " +
+            "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimableIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE submissions SET claimed_by = :node, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL :leaseSeconds SECOND) WHERE id IN (:ids)", nativeQuery = true)
+    int claimLocked(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("leaseSeconds") int leaseSeconds);
+
+    @Modifying
+    @Query(value = "UPDATE submissions SET claimed_by = :node, " +
+            "lease_until = DATE_ADD(NOW(), INTERVAL :leaseSeconds SECOND) " +
+            "WHERE id = :id AND status = 'PENDING' AND (lease_until IS NULL OR lease_until < NOW())", nativeQuery = true)
+    int claimIfAvailable(@Param("id") Long id, @Param("node") String node, @Param("leaseSeconds") int leaseSeconds);
+
+    @Modifying
+    @Query(value = "UPDATE submissions SET lease_until = DATE_ADD(NOW(), INTERVAL :leaseSeconds SECOND) " +
+            "WHERE claimed_by = :node AND status = 'PENDING' AND id IN (:ids)", nativeQuery = true)
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("leaseSeconds") int leaseSeconds);
+
+    // Locking read of the latest committed rows, so a verdict cannot race a re-claim
+    @Query(value = "SELECT id FROM submissions WHERE id IN (:ids) AND claimed_by = :node " +
+            "AND status = 'PENDING' ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockHeldIds(@Param("ids") Collection<Long> ids, @Param("node") String node);
+
+    @Modifying
+    @Query(value = "UPDATE submissions SET claimed_by = NULL, lease_until = NULL " +
+            "WHERE claimed_by = :node AND id IN (:ids)", nativeQuery = true)
+    int releaseLeases(@Param("ids") Collection<Long> ids, @Param("node") String node);
+
+    boolean existsByUserIdAndExerciseIdAndStatusAndIdNot(Long userId, Long exerciseId, Submission.Status status, Long id);
+
+    @Query("SELECT s FROM Submission s JOIN FETCH s.user JOIN FETCH s.exercise JOIN FETCH s.language " +
+            "WHERE s.user.id = :userId AND s.exercise.id = :exerciseId AND s.status = 'SUCCESS' ORDER BY s.createdAt DESC")
+    List<Submission> findLatestSuccessfulSubmission(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId);
+
+    /**
+     * Best time per user and exercise among submissions with the given status. MIN ignores
+     * NULL times, so the best time is null only if the judge reported none.
+     */
+    @Query("SELECT s.user.id AS userId, s.exercise.id AS exerciseId, MIN(s.time) AS bestTime " +
+            "FROM Submission s WHERE s.status = :status GROUP BY s.user.id, s.exercise.id")
+    List<BestTimeView> findBestTimes(@Param("status") Submission.Status status);
+
+    // Same as findBestTimes for one user and exercise; empty when there is no such submission
+    @Query("SELECT s.user.id AS userId, s.exercise.id AS exerciseId, MIN(s.time) AS bestTime " +
+            "FROM Submission s WHERE s.user.id = :userId AND s.exercise.id = :exerciseId " +
+            "AND s.status = :status GROUP BY s.user.id, s.exercise.id")
+    Optional<BestTimeView> findBestTime(@Param("userId") Long userId,
+                                        @Param("exerciseId") Long exerciseId,
+                                        @Param("status") Submission.Status status);
+
+    interface BestTimeView {
+        Long getUserId();
+        Long getExerciseId();
+        Double getBestTime();
+    }
+
+    /**
+     * Size of the judge backlog and the creation time of its oldest entry. The time is written
+     * by the application, so callers compare it with the application clock. Served from
+     * {@code idx_submissions_status_created}.
+     */
+    @Query("SELECT COUNT(s) AS depth, MIN(s.createdAt) AS oldestCreatedAt FROM Submission s " +
+            "WHERE s.status = com.example.coder.model.Submission.Status.PENDING")
+    PendingBacklogView findPendingBacklog();
+
+    interface PendingBacklogView {
+        Long getDepth();
+        LocalDateTime getOldestCreatedAt();
+    }
 }
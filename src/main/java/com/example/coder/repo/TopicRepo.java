@@ -0,0 +1,37 @@
+package com.example.coder.repo;
+
+import com.example.coder.DTOs.TopicCountDTO;
+import com.example.coder.model.Topic;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TopicRepo extends JpaRepository<Topic, Long> {
+    List<Topic> findBySlugIn(Collection<String> slugs);
+
+    // Locking read, so it also sees rows committed after the transaction's snapshot was taken
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select t from Topic t where t.slug in :slugs")
+    List<Topic> findLockedBySlugIn(@Param("slugs") Collection<String> slugs);
+
+    @Query("select t.name from Topic t where t.exerciseCount > 0 order by t.name")
+    List<String> findNamesInUse();
+
+    @Query("select new com.example.coder.DTOs.TopicCountDTO(t.name, t.exerciseCount) " +
+            "from Topic t where t.exerciseCount > 0 order by t.exerciseCount desc, t.name")
+    List<TopicCountDTO> findTopicCounts();
+
+    @Modifying
+    @Query(value = "UPDATE topics t SET exercise_count = " +
+            "(SELECT COUNT(*) FROM exercise_topics et WHERE et.topic_id = t.id) " +
+            "WHERE t.id IN (:ids)", nativeQuery = true)
+    int refreshExerciseCounts(@Param("ids") Collection<Long> ids);
+}
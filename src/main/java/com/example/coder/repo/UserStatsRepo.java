@@ -0,0 +1,57 @@
+package com.example.coder.repo;
+
+import com.example.coder.model.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UserStatsRepo extends JpaRepository<UserStats, Long> {
+
+    // Atomic in the database, so concurrent judge results never lose an increment
+    @Modifying
+    @Query(value = "INSERT INTO user_stats " +
+            "(user_id, pending_count, success_count, fail_count, error_count, solved_exercises) " +
+            "VALUES (:userId, :pending, :success, :fail, :error, :solved) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "pending_count = pending_count + VALUES(pending_count), " +
+            "success_count = success_count + VALUES(success_count), " +
+            "fail_count = fail_count + VALUES(fail_count), " +
+            "error_count = error_count + VALUES(error_count), " +
+            "solved_exercises = solved_exercises + VALUES(solved_exercises)", nativeQuery = true)
+    int addCounts(@Param("userId") Long userId,
+                  @Param("pending") int pending,
+                  @Param("success") int success,
+                  @Param("fail") int fail,
+                  @Param("error") int error,
+                  @Param("solved") int solved);
+
+    /**
+     * Brings every row to the counts in the submissions table by adding the difference between
+     * both, read from one snapshot, to the current counters. A delta committed after the
+     * snapshot is kept instead of being overwritten.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_stats " +
+            "(user_id, pending_count, success_count, fail_count, error_count, solved_exercises) " +
+            "SELECT c.user_id, c.pending - COALESCE(u.pending_count, 0), c.success - COALESCE(u.success_count, 0), " +
+            "c.fail - COALESCE(u.fail_count, 0), c.error - COALESCE(u.error_count, 0), " +
+            "c.solved - COALESCE(u.solved_exercises, 0) " +
+            "FROM (SELECT user_id, SUM(status = 'PENDING') AS pending, SUM(status = 'SUCCESS') AS success, " +
+            "SUM(status = 'FAIL') AS fail, SUM(status = 'ERROR') AS error, " +
+            "COUNT(DISTINCT CASE WHEN status = 'SUCCESS' THEN exercise_id END) AS solved " +
+            "FROM submissions GROUP BY user_id) c " +
+            "LEFT JOIN user_stats u ON u.user_id = c.user_id " +
+            "ON DUPLICATE KEY UPDATE " +
+            "user_stats.pending_count = user_stats.pending_count + VALUES(pending_count), " +
+            "user_stats.success_count = user_stats.success_count + VALUES(success_count), " +
+            "user_stats.fail_count = user_stats.fail_count + VALUES(fail_count), " +
+            "user_stats.error_count = user_stats.error_count + VALUES(error_count), " +
+            "user_stats.solved_exercises = user_stats.solved_exercises + VALUES(solved_exercises)", nativeQuery = true)
+    int recomputeAll();
+
+    @Modifying
+    @Query(value = "DELETE FROM user_stats WHERE NOT EXISTS " +
+            "(SELECT 1 FROM submissions s WHERE s.user_id = user_stats.user_id)", nativeQuery = true)
+    int deleteWithoutSubmissions();
+}
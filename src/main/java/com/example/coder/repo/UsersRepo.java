@@ -2,7 +2,13 @@ package com.example.coder.repo;
 
 import com.example.coder.model.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsersRepo extends JpaRepository<Users, Long> {
@@ -10,4 +16,25 @@ public interface UsersRepo extends JpaRepository<Users, Long> {
     boolean existsByEmail(String email);
     Optional<Users> findByUsername(String username);
     Optional<Users> findByEmail(String email);
+
+    @Modifying
+    @Transactional
+    @Query("update Users u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Query("select u.id as id, u.tokenVersion as tokenVersion from Users u")
+    List<TokenVersionView> findAllTokenVersions();
+
+    interface TokenVersionView {
+        Long getId();
+        Integer getTokenVersion();
+    }
+
+    @Query("select u.id as id, u.username as username from Users u where u.id in :ids")
+    List<UsernameView> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface UsernameView {
+        Long getId();
+        String getUsername();
+    }
 }
@@ -0,0 +1,328 @@
+package com.example.coder.search;
+
+import com.example.coder.events.ExerciseChangedEvent;
+import com.example.coder.model.Exercises;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.support.ReplayingRebuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over exercise titles, topics and descriptions.
+ * <p>
+ * Every field keeps a sorted term dictionary, so exact and prefix (typeahead) lookups are a
+ * map lookup or a range scan instead of a {@code LIKE '%kw%'} table scan. Query terms are
+ * ANDed; hits are ranked by field weight, term frequency and inverse document frequency,
+ * newest first on ties.
+ * <p>
+ * The index is built from the database once the application is ready and kept in sync with
+ * {@link ExerciseChangedEvent}s after each commit. A periodic rebuild picks up changes made by
+ * other nodes. Until the first build finishes {@link #isReady()} is false and callers fall
+ * back to the repository queries.
+ */
+@Slf4j
+@Component
+public class ExerciseSearchIndex {
+
+    public enum Field {
+        TITLE(3.0),
+        TOPICS(2.0),
+        DESCRIPTION(1.0);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double PREFIX_MATCH_FACTOR = 0.8;
+
+    private final ExercisesRepo exercisesRepo;
+    private final ReplayingRebuilder<State> index = new ReplayingRebuilder<>(new State());
+
+    public ExerciseSearchIndex(ExercisesRepo exercisesRepo) {
+        this.exercisesRepo = exercisesRepo;
+    }
+
+    public boolean isReady() {
+        return index.isReady();
+    }
+
+    public int size() {
+        return index.read(s -> s.documents.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${search.exercises.rebuild-interval-ms:300000}",
+            fixedDelayString = "${search.exercises.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the whole index from the database without blocking searches. Changes that
+     * commit while the rebuild is loading are replayed on top of the new index. A call made
+     * while another rebuild is running returns without doing anything.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        State rebuilt = index.rebuild(() -> {
+            State loaded = new State();
+            for (Exercises exercise : exercisesRepo.findAll()) {
+                loaded.add(exercise);
+            }
+            return loaded;
+        });
+        if (rebuilt == null) {
+            log.debug("Exercise search index rebuild already running, skipping");
+            return;
+        }
+        log.debug("Exercise search index rebuilt with {} documents in {} ms",
+                rebuilt.documents.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExerciseChanged(ExerciseChangedEvent event) {
+        if (event.getExercise() == null) {
+            remove(event.getExerciseId());
+        } else {
+            index(event.getExercise());
+        }
+    }
+
+    public void index(Exercises exercise) {
+        Document document = new Document(exercise);
+        index.apply(s -> {
+            s.remove(document.id);
+            s.add(document);
+        });
+    }
+
+    public void remove(Long exerciseId) {
+        index.apply(s -> s.remove(exerciseId));
+    }
+
+    /**
+     * Returns one page of exercise ids in rank order.
+     */
+    public Page<Long> search(SearchQuery query, int page, int size) {
+        List<Long> ranked = search(query);
+        int from = (int) Math.min((long) page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), PageRequest.of(page, size), ranked.size());
+    }
+
+    /**
+     * Returns every matching exercise id in rank order.
+     */
+    public List<Long> search(SearchQuery query) {
+        List<String> tokens = tokenize(query.getText());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        return index.read(state -> {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = state.score(token, query);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Double> finalScores = scores;
+            Comparator<Document> order = Comparator
+                    .comparingDouble((Document d) -> finalScores.get(d.id)).reversed()
+                    .thenComparing(d -> d.createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(d -> d.id, Comparator.reverseOrder());
+
+            return scores.keySet().stream()
+                    .map(state.documents::get)
+                    .filter(d -> query.getDifficulty() == null || query.getDifficulty() == d.difficulty)
+                    .sorted(order)
+                    .map(d -> d.id)
+                    .toList();
+        });
+    }
+
+    /**
+     * Typeahead over titles: every word of the input is matched as a prefix.
+     */
+    public List<ExerciseSuggestion> suggest(String prefix, int limit) {
+        List<Long> ids = search(SearchQuery.builder()
+                .text(prefix)
+                .fields(Set.of(Field.TITLE))
+                .prefix(true)
+                .build());
+
+        return index.read(s -> {
+            List<ExerciseSuggestion> suggestions = new ArrayList<>(Math.min(limit, ids.size()));
+            for (Long id : ids) {
+                if (suggestions.size() >= limit) {
+                    break;
+                }
+                Document document = s.documents.get(id);
+                if (document != null) {
+                    suggestions.add(new ExerciseSuggestion(id, document.title));
+                }
+            }
+            return suggestions;
+        });
+    }
+
+    /**
+     * Lower-cases, strips accents (so "đồ thị" matches "do thi") and splits on anything that
+     * is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)
+                .replace('đ', 'd');
+        folded = DIACRITICS.matcher(folded).replaceAll("");
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Document {
+        private final Long id;
+        private final String title;
+        private final Exercises.Difficulty difficulty;
+        private final LocalDateTime createdAt;
+        private final Map<Field, Map<String, Integer>> termFrequencies = new EnumMap<>(Field.class);
+
+        Document(Exercises exercise) {
+            this.id = exercise.getId();
+            this.title = exercise.getTitle();
+            this.difficulty = exercise.getDifficulty();
+            this.createdAt = exercise.getCreatedAt();
+            termFrequencies.put(Field.TITLE, countTerms(exercise.getTitle()));
+            termFrequencies.put(Field.TOPICS, countTerms(exercise.getTopics()));
+            termFrequencies.put(Field.DESCRIPTION, countTerms(exercise.getDescription()));
+        }
+
+        private static Map<String, Integer> countTerms(String text) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (String token : tokenize(text)) {
+                counts.merge(token, 1, Integer::sum);
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Index contents. Only touched through {@link ReplayingRebuilder}, which guards it.
+     */
+    private static final class State {
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<Field, NavigableMap<String, Map<Long, Integer>>> postings = new EnumMap<>(Field.class);
+
+        State() {
+            for (Field field : Field.values()) {
+                postings.put(field, new TreeMap<>());
+            }
+        }
+
+        void add(Exercises exercise) {
+            add(new Document(exercise));
+        }
+
+        void add(Document document) {
+            documents.put(document.id, document);
+            document.termFrequencies.forEach((field, terms) -> {
+                NavigableMap<String, Map<Long, Integer>> dictionary = postings.get(field);
+                terms.forEach((term, count) ->
+                        dictionary.computeIfAbsent(term, t -> new HashMap<>()).put(document.id, count));
+            });
+        }
+
+        void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            document.termFrequencies.forEach((field, terms) -> {
+                NavigableMap<String, Map<Long, Integer>> dictionary = postings.get(field);
+                for (String term : terms.keySet()) {
+                    Map<Long, Integer> posting = dictionary.get(term);
+                    if (posting != null) {
+                        posting.remove(id);
+                        if (posting.isEmpty()) {
+                            dictionary.remove(term);
+                        }
+                    }
+                }
+            });
+        }
+
+        Map<Long, Double> score(String token, SearchQuery query) {
+            Map<Long, Double> scores = new HashMap<>();
+            int totalDocuments = Math.max(1, documents.size());
+
+            for (Field field : query.getFields()) {
+                NavigableMap<String, Map<Long, Integer>> dictionary = postings.get(field);
+                Map<String, Map<Long, Integer>> matches = query.isPrefix()
+                        ? dictionary.subMap(token, true, token + Character.MAX_VALUE, false)
+                        : exactMatch(dictionary, token);
+
+                for (Map.Entry<String, Map<Long, Integer>> entry : matches.entrySet()) {
+                    Map<Long, Integer> posting = entry.getValue();
+                    double idf = Math.log(1.0 + (double) totalDocuments / posting.size());
+                    double factor = entry.getKey().equals(token) ? 1.0 : PREFIX_MATCH_FACTOR;
+
+                    posting.forEach((id, count) -> scores.merge(id,
+                            field.weight * factor * idf * (1.0 + Math.log(count)), Double::sum));
+                }
+            }
+            return scores;
+        }
+
+        private static Map<String, Map<Long, Integer>> exactMatch(
+                NavigableMap<String, Map<Long, Integer>> dictionary, String token) {
+            Map<Long, Integer> posting = dictionary.get(token);
+            return posting == null ? Map.of() : Map.of(token, posting);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.coder.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ExerciseSuggestion {
+    private Long id;
+    private String title;
+}
@@ -0,0 +1,24 @@
+package com.example.coder.search;
+
+import com.example.coder.model.Exercises;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@Builder
+public class SearchQuery {
+    private final String text;
+
+    @Builder.Default
+    private final Set<ExerciseSearchIndex.Field> fields = EnumSet.allOf(ExerciseSearchIndex.Field.class);
+
+    /**
+     * Match every query word as a prefix of an indexed word instead of the whole word.
+     */
+    private final boolean prefix;
+
+    private final Exercises.Difficulty difficulty;
+}
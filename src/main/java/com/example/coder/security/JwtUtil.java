@@ -10,17 +10,60 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies HS256 tokens. Keys are decoded and the parser is built once; both are
+ * immutable and thread-safe, so nothing is derived per request.
+ * <p>
+ * Key rotation: tokens are signed with {@code jwt.secret} and carry its {@code jwt.key-id} in
+ * the {@code kid} header. Retired keys listed in {@code jwt.verification-keys}
+ * ({@code kid:base64secret,...}) are still accepted until their tokens expire. Tokens without
+ * a {@code kid} were issued before rotation existed and are checked against the current key.
+ */
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
-    private String secret;
-
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpiration;
+    private final String currentKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+
+    public JwtUtil(
+            @Value("${jwt.secret:mySecretKey123456789012345678901234567890}") String secret,
+            @Value("${jwt.key-id:default}") String keyId,
+            @Value("${jwt.verification-keys:}") String retiredKeys,
+            @Value("${jwt.expiration:86400000}") long jwtExpiration) {
+        this.currentKeyId = keyId;
+        this.signingKey = decodeKey(secret);
+        this.jwtExpiration = jwtExpiration;
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        for (String entry : retiredKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("jwt.verification-keys entries must be kid:secret");
+            }
+            keys.put(entry.substring(0, separator).trim(), decodeKey(entry.substring(separator + 1).trim()));
+        }
+        keys.put(currentKeyId, signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -35,12 +78,16 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the signature and expiry and returns the claims. Throws {@link JwtException}
+     * if the token is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     private Boolean isTokenExpired(String token) {
@@ -48,21 +95,32 @@ public class JwtUtil {
     }
 
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        return generateToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * Tokens for a {@link UserPrincipal} also carry the user id, role and token version, so
+     * the stateless mode can authorize them without loading the user.
+     */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return createToken(extraClaims, userDetails.getUsername());
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(UserPrincipal.CLAIM_USER_ID, principal.getId());
+            claims.put(UserPrincipal.CLAIM_ROLE, principal.getRole().name());
+            claims.put(UserPrincipal.CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+        }
+        return createToken(claims, userDetails.getUsername());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyId)
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -75,20 +133,28 @@ public class JwtUtil {
         return !isTokenExpired(token);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSignInKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    private Key resolveKey(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        Key key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static Key decodeKey(String secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
 }
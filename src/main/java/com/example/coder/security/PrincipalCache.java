@@ -0,0 +1,64 @@
+package com.example.coder.security;
+
+import com.example.coder.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of authenticated principals by username, so a JWT request does not hit
+ * the users table. Entries expire after {@code cache.principals.ttl-seconds}; this node evicts
+ * a user right away when their role, password or username changes or they are deleted, other
+ * nodes pick the change up when the entry expires.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache cache;
+    // Bumped by every evict, so a load that overlapped one does not stay cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PrincipalCache(UserDetailsService userDetailsService, CacheManager cacheManager) {
+        this.userDetailsService = userDetailsService;
+        this.cache = cacheManager.getCache(CacheConfig.PRINCIPALS);
+    }
+
+    public UserDetails get(String username) {
+        // Not cache.get(key, loader): Caffeine runs the loader inside a ConcurrentHashMap bin
+        // lock, which would pin a virtual thread for the whole user query
+        UserDetails cached = cache.get(username, UserDetails.class);
+        if (cached != null) {
+            return cached;
+        }
+        long evictionsBefore = evictions.get();
+        UserDetails loaded = withoutPassword(userDetailsService.loadUserByUsername(username));
+        cache.put(username, loaded);
+        // An evict that ran during the load may have seen the old row; drop what was just put.
+        // One that runs after this check also runs its cache.evict after the put.
+        if (evictions.get() != evictionsBefore) {
+            cache.evict(username);
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            evictions.incrementAndGet();
+            cache.evict(username);
+        }
+    }
+
+    // Request principals never need the password hash, so it is not kept in memory
+    private static UserDetails withoutPassword(UserDetails userDetails) {
+        if (userDetails instanceof UserPrincipal principal) {
+            return principal.withoutPassword();
+        }
+        return User.withUserDetails(userDetails).password("").build();
+    }
+}
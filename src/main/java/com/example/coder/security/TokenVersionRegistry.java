@@ -0,0 +1,101 @@
+package com.example.coder.security;
+
+import com.example.coder.events.UserChangedEvent;
+import com.example.coder.repo.UsersRepo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of every user's token version, used to revoke stateless tokens without a
+ * query per request. A token is accepted only if its version matches the user's current one;
+ * bumping the version (role, password or username change) or deleting the user revokes all
+ * tokens issued before.
+ * <p>
+ * The versions are loaded before the application serves requests. This node applies its own
+ * changes once they commit; changes made on other nodes are picked up by the periodic refresh
+ * ({@code jwt.stateless.version-refresh-ms}). Versions only grow, so a refresh that read the
+ * table before a local change committed keeps the newer version. Only loaded when
+ * {@code jwt.stateless-claims} is enabled.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    // No token carries this version, so it rejects every token of a deleted user
+    private static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UsersRepo usersRepo;
+    private final boolean enabled;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    // Ids are never reused, so this only grows
+    private volatile long maxKnownId;
+
+    public TokenVersionRegistry(UsersRepo usersRepo, @Value("${jwt.stateless-claims:false}") boolean enabled) {
+        this.usersRepo = usersRepo;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.stateless.version-refresh-ms:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Integer> loaded = new HashMap<>();
+        long maxId = 0;
+        for (UsersRepo.TokenVersionView view : usersRepo.findAllTokenVersions()) {
+            loaded.put(view.getId(), view.getTokenVersion());
+            maxId = Math.max(maxId, view.getId());
+        }
+
+        loaded.forEach((userId, version) -> versions.merge(userId, version, Math::max));
+        // Users missing from the load were deleted; ids above it were created after the read
+        long loadedMaxId = maxId;
+        versions.keySet().removeIf(userId -> userId <= loadedMaxId && !loaded.containsKey(userId));
+        maxKnownId = Math.max(maxKnownId, maxId);
+        log.debug("Loaded token versions for {} users", loaded.size());
+    }
+
+    /**
+     * True if a token with this user id and version has not been revoked. Users created after
+     * the last refresh are not in the map yet and are accepted.
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            return userId > maxKnownId;
+        }
+        return current == tokenVersion;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getTokenVersion() == null) {
+            revoke(event.getUserId());
+        } else {
+            update(event.getUserId(), event.getTokenVersion());
+        }
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        versions.merge(userId, tokenVersion, Math::max);
+    }
+
+    public void revoke(Long userId) {
+        versions.put(userId, REVOKED);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.coder.security;
+
+import com.example.coder.model.Users;
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated user with the id and token version next to the username and role, so
+ * ownership checks do not have to look the user up again.
+ */
+@Getter
+public class UserPrincipal extends User {
+
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final Long id;
+    private final Users.Role role;
+    private final int tokenVersion;
+
+    public UserPrincipal(Long id, String username, String password, Users.Role role, int tokenVersion) {
+        super(username, password, authorities(role));
+        this.id = id;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public static UserPrincipal from(Users user) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.getRole(),
+                user.getTokenVersion());
+    }
+
+    /**
+     * Rebuilds the principal from a token issued by {@link JwtUtil}. Returns null when the
+     * token predates embedded claims.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Number id = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        if (id == null || role == null || version == null) {
+            return null;
+        }
+        return new UserPrincipal(id.longValue(), claims.getSubject(), "", Users.Role.valueOf(role),
+                version.intValue());
+    }
+
+    public UserPrincipal withoutPassword() {
+        return new UserPrincipal(id, getUsername(), "", role, tokenVersion);
+    }
+
+    private static Collection<? extends GrantedAuthority> authorities(Users.Role role) {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -6,43 +6,47 @@ import com.example.coder.DTOs.RegisterRequestDTO;
 import com.example.coder.DTOs.UserResponseDTO;
 import com.example.coder.model.Users;
 import com.example.coder.repo.UsersRepo;
-import com.example.coder.security.CustomUserDetailsService;
 import com.example.coder.security.JwtUtil;
+import com.example.coder.security.PasswordHasher;
+import com.example.coder.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
     private final UsersRepo usersRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
 
-    @Transactional
-    public LoginResponseDTO login(LoginRequestDTO request) {
+    /**
+     * Loads the user once, then checks the password on the hashing pool so the request thread
+     * is released while bcrypt runs. Outdated hashes are upgraded after a successful match.
+     */
+    public CompletableFuture<LoginResponseDTO> login(LoginRequestDTO request) {
+        Users user;
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsername(),
-                            request.getPassword()
-                    )
-            );
-
-            Users user = usersRepo.findByUsername(request.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User không tồn tại"));
+            user = usersRepo.findByUsername(request.getUsername()).orElse(null);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Có lỗi xảy ra khi đăng nhập"));
+        }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-            String jwt = jwtUtil.generateToken(userDetails);
+        String storedHash = user != null ? user.getPassword() : null;
+        return passwordHasher.matches(request.getPassword(), storedHash).thenApply(matched -> {
+            if (!matched) {
+                throw new BadCredentialsException("Tên đăng nhập hoặc mật khẩu không đúng");
+            }
+            upgradePasswordHash(user, request.getPassword());
 
+            String jwt = jwtUtil.generateToken(UserPrincipal.from(user));
             return new LoginResponseDTO(
                     jwt,
                     user.getId(),
@@ -51,10 +55,18 @@ public class AuthService {
                     user.getRole().name(),
                     86400000L // 24 hours
             );
-        } catch (BadCredentialsException e) {
-            throw new RuntimeException("Tên đăng nhập hoặc mật khẩu không đúng");
-        } catch (Exception e) {
-            throw new RuntimeException("Có lỗi xảy ra khi đăng nhập");
+        });
+    }
+
+    private void upgradePasswordHash(Users user, String rawPassword) {
+        try {
+            String upgraded = passwordHasher.rehashIfOutdated(rawPassword, user.getPassword());
+            if (upgraded != null) {
+                usersRepo.updatePassword(user.getId(), upgraded);
+            }
+        } catch (RuntimeException e) {
+            // The login itself succeeded; the upgrade is retried on the next one
+            log.warn("Could not upgrade password hash for user {}", user.getId(), e);
         }
     }
 
@@ -73,10 +85,18 @@ public class AuthService {
             throw new RuntimeException("Email đã tồn tại");
         }
 
+        String hash;
+        try {
+            hash = passwordHasher.encode(request.getPassword()).join();
+        } catch (CompletionException e) {
+            // Surfaces the 503 when the hashing queue is full
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
         try {
             Users user = new Users();
             user.setUsername(request.getUsername().trim());
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(hash);
             user.setEmail(request.getEmail().trim().toLowerCase());
             user.setRole(Users.Role.USER);
 
@@ -127,8 +147,7 @@ public class AuthService {
                     .orElseThrow(() -> new RuntimeException("User không tồn tại"));
 
             if (jwtUtil.canTokenBeRefreshed(token)) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                String newToken = jwtUtil.generateToken(userDetails);
+                String newToken = jwtUtil.generateToken(UserPrincipal.from(user));
 
                 return new LoginResponseDTO(
                         newToken,
@@ -1,6 +1,10 @@
 package com.example.coder.services;
 
+import com.example.coder.DTOs.CacheStatsDTO;
+import com.example.coder.DTOs.ExerciseDTO;
+import com.example.coder.DTOs.TopicCountDTO;
 import com.example.coder.model.Exercises;
+import com.example.coder.search.ExerciseSuggestion;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -10,14 +14,18 @@ import java.util.List;
 @Service
 public interface ExcercisesService {
     ResponseEntity<Exercises> addExercise(Exercises exercise);
-    ResponseEntity<List<Exercises>> getAllExercises();
-    ResponseEntity<Exercises> getExerciseById(Long id);
-    ResponseEntity<List<Exercises>> getExercisesByDifficulty(String difficulty);
+    ResponseEntity<List<ExerciseDTO>> getAllExercises();
+    ResponseEntity<ExerciseDTO> getExerciseById(Long id);
+    ResponseEntity<List<ExerciseDTO>> getExercisesByDifficulty(String difficulty);
     ResponseEntity<List<Exercises>> getExercisesByTitle(String keyword);
     ResponseEntity<List<Exercises>> getExercisesByTopic(String topic);
     ResponseEntity<List<Exercises>> getExercisesByTopicAndDifficulty(String topic, String difficulty);
     ResponseEntity<List<String>> getAllTopics();
+    ResponseEntity<List<TopicCountDTO>> getTopicCounts();
+    ResponseEntity<List<CacheStatsDTO>> getCacheStats();
     ResponseEntity<List<Exercises>> searchExercises(String keyword);
+    ResponseEntity<Page<Exercises>> searchExercisesPaged(String keyword, String difficulty, int page, int size);
+    ResponseEntity<List<ExerciseSuggestion>> suggestExercises(String prefix, int limit);
     ResponseEntity<Exercises> updateExercise(Long id, Exercises exercises);
     ResponseEntity<Exercises> deleteExercise(Long id);
     ResponseEntity<Page<Exercises>> getAllExercisesPaged(int page, int size);
@@ -0,0 +1,14 @@
+package com.example.coder.services;
+
+import com.example.coder.DTOs.BulkImportResultDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+public interface ExerciseBulkService {
+    ResponseEntity<BulkImportResultDTO> importExercises(InputStream body);
+    void exportExercises(OutputStream out, boolean ndjson);
+}
@@ -0,0 +1,15 @@
+package com.example.coder.services;
+
+import com.example.coder.DTOs.LeaderboardEntryDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public interface LeaderboardService {
+    ResponseEntity<List<LeaderboardEntryDTO>> getGlobalLeaderboard(int limit);
+    ResponseEntity<List<LeaderboardEntryDTO>> getExerciseLeaderboard(Long exerciseId, int limit);
+    ResponseEntity<LeaderboardEntryDTO> getGlobalRank(Long userId);
+    ResponseEntity<LeaderboardEntryDTO> getExerciseRank(Long exerciseId, Long userId);
+}
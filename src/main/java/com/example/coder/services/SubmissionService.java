@@ -1,13 +1,20 @@
 package com.example.coder.services;
 
+import com.example.coder.DTOs.CursorPageDTO;
+import com.example.coder.DTOs.LanguageStatsDTO;
 import com.example.coder.DTOs.SubmissionCreateDTO;
 import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import com.example.coder.DTOs.SubmissionSummaryDTO;
 import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.DTOs.UserStatsDTO;
+import com.example.coder.repo.SubmissionPayloadRepo;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -16,31 +23,46 @@ public interface SubmissionService {
 
     SubmissionResponseDTO getSubmissionById(Long id);
 
-    List<SubmissionResponseDTO> getSubmissionsByUser(Long userId);
+    SubmissionStatusDTO getSubmissionStatus(Long id);
 
-    Page<SubmissionResponseDTO> getSubmissionsByUserPaged(Long userId, Pageable pageable);
+    Optional<String> getSubmissionPayload(Long id, SubmissionPayloadRepo.Field field);
 
-    List<SubmissionResponseDTO> getSubmissionsByExercise(Long exerciseId);
+    List<SubmissionSummaryDTO> getSubmissionsByUser(Long userId, boolean includeSource);
 
-    List<SubmissionResponseDTO> getPendingSubmissions();
+    Page<SubmissionSummaryDTO> getSubmissionsByUserPaged(Long userId, Pageable pageable, boolean includeSource);
+
+    CursorPageDTO<SubmissionSummaryDTO> getSubmissionsByUserCursor(
+            Long userId,
+            String cursor,
+            int size,
+            boolean includeSource,
+            boolean includeTotal
+    );
+
+    List<SubmissionSummaryDTO> getSubmissionsByExercise(Long exerciseId, boolean includeSource);
+
+    List<SubmissionSummaryDTO> getPendingSubmissions(boolean includeSource);
 
     SubmissionResponseDTO updateSubmissionResult(Long id, SubmissionUpdateDTO dto);
 
-    List<SubmissionResponseDTO> getUserSubmissionsForExercise(Long userId, Long exerciseId);
+    void updateSubmissionResults(Map<Long, SubmissionUpdateDTO> results);
+
+    List<SubmissionSummaryDTO> getUserSubmissionsForExercise(Long userId, Long exerciseId, boolean includeSource);
 
     Optional<SubmissionResponseDTO> getLatestSuccessfulSubmission(Long userId, Long exerciseId);
 
-    List<Object[]> getSubmissionStatsByUser(Long userId);
+    UserStatsDTO getSubmissionStatsByUser(Long userId);
 
-    List<Object[]> getSubmissionStatsByLanguage();
+    List<LanguageStatsDTO> getSubmissionStatsByLanguage();
 
     void deleteSubmission(Long id, Long currentUserId, boolean isAdmin);
 
-    Page<SubmissionResponseDTO> getSubmissionsByUserPagedWithFilters(
+    Page<SubmissionSummaryDTO> getSubmissionsByUserPagedWithFilters(
             Long userId,
             Pageable pageable,
             Long languageId,
             String status,
-            String exerciseKeyword
+            String exerciseKeyword,
+            boolean includeSource
     );
 }
@@ -0,0 +1,15 @@
+package com.example.coder.services;
+
+import com.example.coder.DTOs.TopicCountDTO;
+import com.example.coder.model.Topic;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface TopicService {
+    Set<Topic> resolveTopics(List<String> names);
+    void refreshExerciseCounts(Collection<Long> topicIds);
+    List<String> getTopicNames();
+    List<TopicCountDTO> getTopicCounts();
+}
@@ -0,0 +1,228 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.DTOs.BulkImportResultDTO;
+import com.example.coder.events.ExerciseChangedEvent;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Topic;
+import com.example.coder.repo.ExerciseExportRepo;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.services.ExerciseBulkService;
+import com.example.coder.services.TopicService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Imports and exports the exercise catalog as a JSON array or newline-delimited JSON, one
+ * exercise at a time, so neither side ever holds the whole payload.
+ * <p>
+ * Titles are checked against one preloaded set of existing titles instead of a query per
+ * exercise. Valid exercises are inserted {@code exercises.import.batch-size} at a time, each
+ * batch in its own transaction; invalid ones are skipped and reported by position. If the
+ * body cannot be read to the end, the import stops there and the report says where.
+ */
+@Slf4j
+@Service
+public class ExerciseBulkServiceImp implements ExerciseBulkService {
+
+    private final ExercisesRepo exercisesRepo;
+    private final ExerciseExportRepo exerciseExportRepo;
+    private final TopicService topicService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ExerciseBulkServiceImp(
+            ExercisesRepo exercisesRepo,
+            ExerciseExportRepo exerciseExportRepo,
+            TopicService topicService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${exercises.import.batch-size:500}") int batchSize) {
+        this.exercisesRepo = exercisesRepo;
+        this.exerciseExportRepo = exerciseExportRepo;
+        this.topicService = topicService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public ResponseEntity<BulkImportResultDTO> importExercises(InputStream body) {
+        Set<String> titles = new HashSet<>(exercisesRepo.findAllTitlesLowerCase());
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<Exercises> batch = new ArrayList<>(batchSize);
+        List<Integer> positions = new ArrayList<>(batchSize);
+
+        int index = 0;
+        // A root-level array is iterated element by element, just like NDJSON lines
+        try (MappingIterator<Exercises> items = objectMapper.readerFor(Exercises.class).readValues(body)) {
+            while (true) {
+                Exercises exercise;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    exercise = items.nextValue();
+                } catch (JsonParseException e) {
+                    // The rest of the stream cannot be read reliably
+                    result.addError(index, null, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    result.addError(index++, null, "Invalid exercise: " + e.getOriginalMessage());
+                    continue;
+                } catch (IOException e) {
+                    result.addError(index, null, "Request body ended early, import stopped: " + e.getMessage());
+                    break;
+                }
+
+                String error = prepare(exercise, titles);
+                if (error != null) {
+                    result.addError(index++, exercise.getTitle(), error);
+                    continue;
+                }
+                batch.add(exercise);
+                positions.add(index++);
+                if (batch.size() == batchSize) {
+                    insertBatch(batch, positions, titles, result);
+                }
+            }
+        } catch (IOException e) {
+            // Opening or closing the body failed; whatever was read is still imported below
+            result.addError(index, null, "Request body could not be read, import stopped: " + e.getMessage());
+        }
+        // Exercises read before the body stopped are complete, and earlier batches are
+        // committed, so the rest is imported too and the report says where reading stopped
+        insertBatch(batch, positions, titles, result);
+
+        result.setReceived(index);
+        log.info("Bulk exercise import: {} received, {} imported, {} rejected",
+                result.getReceived(), result.getImported(), result.getErrors().size());
+        return ResponseEntity.ok(result);
+    }
+
+    @Override
+    public void exportExercises(OutputStream out, boolean ndjson) {
+        // One flush at the end instead of one per exercise
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (ndjson) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+            exerciseExportRepo.forEach(exercise -> {
+                try {
+                    writer.writeValue(generator, exercise);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (ndjson) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Validates and normalizes one exercise the way {@code addExercise} does. Returns the
+     * reason it is rejected, or null; accepted titles join {@code titles}.
+     */
+    private String prepare(Exercises exercise, Set<String> titles) {
+        if (exercise == null) {
+            return "Exercise object cannot be null";
+        }
+        try {
+            ExercisesServiceImp.validateTitle(exercise.getTitle());
+            ExercisesServiceImp.validateDescription(exercise.getDescription());
+            ExercisesServiceImp.validateTopics(exercise.getTopics());
+        } catch (ResponseStatusException e) {
+            return e.getReason();
+        }
+        if (!titles.add(exercise.getTitle().toLowerCase(Locale.ROOT))) {
+            return "Exercise title already exists";
+        }
+
+        exercise.setId(null);
+        exercise.setTopicSet(new HashSet<>());
+        ExercisesServiceImp.normalizeTopics(exercise);
+        return null;
+    }
+
+    /**
+     * Inserts and clears the batch. Topics for the whole batch are resolved with one lookup,
+     * and the inserts go out as JDBC batches. If the batch fails, every exercise in it is
+     * reported and its title is released.
+     */
+    private void insertBatch(List<Exercises> batch, List<Integer> positions, Set<String> titles,
+                             BulkImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> names = new ArrayList<>();
+                for (Exercises exercise : batch) {
+                    names.addAll(exercise.getTopicsList());
+                }
+                Map<String, Topic> topicsBySlug = new HashMap<>();
+                for (Topic topic : topicService.resolveTopics(names)) {
+                    topicsBySlug.put(topic.getSlug(), topic);
+                }
+
+                Set<Long> topicIds = new HashSet<>();
+                for (Exercises exercise : batch) {
+                    for (String name : exercise.getTopicsList()) {
+                        Topic topic = topicsBySlug.get(Topic.slugOf(name));
+                        exercise.getTopicSet().add(topic);
+                        topicIds.add(topic.getId());
+                    }
+                }
+
+                exercisesRepo.saveAll(batch);
+                exercisesRepo.flush();
+                topicService.refreshExerciseCounts(topicIds);
+                for (Exercises exercise : batch) {
+                    eventPublisher.publishEvent(ExerciseChangedEvent.saved(exercise));
+                }
+            });
+            result.setImported(result.getImported() + batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Bulk exercise import batch of {} failed", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                Exercises exercise = batch.get(i);
+                titles.remove(exercise.getTitle().toLowerCase(Locale.ROOT));
+                result.addError(positions.get(i), exercise.getTitle(), "Insert failed: " + e.getMessage());
+            }
+        } finally {
+            batch.clear();
+            positions.clear();
+        }
+    }
+}
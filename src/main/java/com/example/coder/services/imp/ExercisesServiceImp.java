@@ -1,10 +1,26 @@
 package com.example.coder.services.imp;
 
+import com.example.coder.DTOs.CacheStatsDTO;
+import com.example.coder.DTOs.ExerciseDTO;
+import com.example.coder.DTOs.TopicCountDTO;
+import com.example.coder.config.CacheConfig;
+import com.example.coder.events.ExerciseChangedEvent;
 import com.example.coder.model.Exercises;
+import com.example.coder.model.Topic;
 import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.search.ExerciseSearchIndex;
+import com.example.coder.search.ExerciseSuggestion;
+import com.example.coder.search.SearchQuery;
 import com.example.coder.services.ExcercisesService;
+import com.example.coder.services.TopicService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -22,13 +38,20 @@ import java.util.stream.Collectors;
 public class ExercisesServiceImp implements ExcercisesService {
 
     private final ExercisesRepo exercisesRepo;
+    private final ExerciseSearchIndex searchIndex;
+    private final TopicService topicService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public ResponseEntity<Exercises> addExercise(Exercises exercises) {
         validateExercise(exercises);
         normalizeTopics(exercises);
-        Exercises savedExercises = exercisesRepo.save(exercises);
+        exercises.setTopicSet(topicService.resolveTopics(exercises.getTopicsList()));
+        Exercises savedExercises = exercisesRepo.saveAndFlush(exercises);
+        topicService.refreshExerciseCounts(topicIds(savedExercises.getTopicSet()));
+        eventPublisher.publishEvent(ExerciseChangedEvent.saved(savedExercises));
         return ResponseEntity.status(HttpStatus.CREATED).body(savedExercises);
     }
 
@@ -44,13 +67,16 @@ public class ExercisesServiceImp implements ExcercisesService {
         checkTitleDuplicate(exercise.getTitle(), null);
     }
 
-    private void validateTopics(String topics) {
+    static void validateTopics(String topics) {
         if (topics != null && topics.length() > 1000) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Topics field is too long (max 1000 characters)");
         }
+        if (topics != null && Arrays.stream(topics.split(",")).anyMatch(topic -> topic.trim().length() > 100)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each topic must be at most 100 characters");
+        }
     }
 
-    private void normalizeTopics(Exercises exercise) {
+    static void normalizeTopics(Exercises exercise) {
         if (exercise.getTopics() != null && !exercise.getTopics().trim().isEmpty()) {
             String normalizedTopics = Arrays.stream(exercise.getTopics().split(","))
                     .map(String::trim)
@@ -73,7 +99,7 @@ public class ExercisesServiceImp implements ExcercisesService {
         }
     }
 
-    private void validateTitle(String title) {
+    static void validateTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exercise title cannot be empty");
         }
@@ -82,7 +108,7 @@ public class ExercisesServiceImp implements ExcercisesService {
         }
     }
 
-    private void validateDescription(String description) {
+    static void validateDescription(String description) {
         if (description == null || description.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Exercise description cannot be empty");
         }
@@ -92,19 +118,21 @@ public class ExercisesServiceImp implements ExcercisesService {
     }
 
     @Override
-    public ResponseEntity<List<Exercises>> getAllExercises() {
+    @Cacheable(cacheNames = CacheConfig.EXERCISE_CATALOG, key = "'all'")
+    public ResponseEntity<List<ExerciseDTO>> getAllExercises() {
         List<Exercises> exercises = exercisesRepo.findAllByOrderByCreatedAtDesc();
-        return ResponseEntity.ok(exercises);
+        return ResponseEntity.ok(ExerciseDTO.from(exercises));
     }
 
     @Override
-    public ResponseEntity<Exercises> getExerciseById(Long id) {
+    @Cacheable(cacheNames = CacheConfig.EXERCISE_BY_ID, key = "#id", condition = "#id != null")
+    public ResponseEntity<ExerciseDTO> getExerciseById(Long id) {
         if(id == null || id <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid exercise ID");
         }
         Optional<Exercises> exercises = exercisesRepo.findById(id);
         if(exercises.isPresent()) {
-            return ResponseEntity.ok(exercises.get());
+            return ResponseEntity.ok(ExerciseDTO.from(exercises.get()));
         }
         else {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exercise not found");
@@ -112,11 +140,13 @@ public class ExercisesServiceImp implements ExcercisesService {
     }
 
     @Override
-    public ResponseEntity<List<Exercises>> getExercisesByDifficulty(String difficulty) {
+    @Cacheable(cacheNames = CacheConfig.EXERCISE_CATALOG, key = "'difficulty:' + #difficulty.toUpperCase()",
+            condition = "#difficulty != null")
+    public ResponseEntity<List<ExerciseDTO>> getExercisesByDifficulty(String difficulty) {
         try {
             Exercises.Difficulty difficultyEnum = Exercises.Difficulty.fromString(difficulty);
             List<Exercises> exercises = exercisesRepo.findByDifficulty(difficultyEnum);
-            return ResponseEntity.ok(exercises);
+            return ResponseEntity.ok(ExerciseDTO.from(exercises));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -127,7 +157,13 @@ public class ExercisesServiceImp implements ExcercisesService {
         if(keyword == null || keyword.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Keyword cannot be empty");
         }
-        List<Exercises> exercises = exercisesRepo.findByTitleLike(keyword.trim());
+        List<Exercises> exercises = searchIndex.isReady()
+                ? findRanked(searchIndex.search(SearchQuery.builder()
+                        .text(keyword)
+                        .fields(EnumSet.of(ExerciseSearchIndex.Field.TITLE))
+                        .prefix(true)
+                        .build()))
+                : exercisesRepo.findByTitleLike(keyword.trim());
         return ResponseEntity.ok(exercises);
     }
 
@@ -136,7 +172,7 @@ public class ExercisesServiceImp implements ExcercisesService {
         if(topic == null || topic.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Topic cannot be empty");
         }
-        List<Exercises> exercises = exercisesRepo.findByTopicsContaining(topic.trim());
+        List<Exercises> exercises = exercisesRepo.findByTopicSlug(Topic.slugOf(topic));
         return ResponseEntity.ok(exercises);
     }
 
@@ -147,7 +183,7 @@ public class ExercisesServiceImp implements ExcercisesService {
         }
         try {
             Exercises.Difficulty difficultyEnum = Exercises.Difficulty.fromString(difficulty);
-            List<Exercises> exercises = exercisesRepo.findByTopicsContainingAndDifficulty(topic.trim(), difficultyEnum);
+            List<Exercises> exercises = exercisesRepo.findByTopicSlugAndDifficulty(Topic.slugOf(topic), difficultyEnum);
             return ResponseEntity.ok(exercises);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
@@ -155,16 +191,33 @@ public class ExercisesServiceImp implements ExcercisesService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.EXERCISE_CATALOG, key = "'topics'")
     public ResponseEntity<List<String>> getAllTopics() {
-        List<String> allTopicsStrings = exercisesRepo.findAllDistinctTopics();
-        List<String> uniqueTopics = allTopicsStrings.stream()
-                .flatMap(topicsString -> Arrays.stream(topicsString.split(",")))
-                .map(String::trim)
-                .filter(topic -> !topic.isEmpty())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(uniqueTopics);
+        return ResponseEntity.ok(topicService.getTopicNames());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EXERCISE_CATALOG, key = "'topicCounts'")
+    public ResponseEntity<List<TopicCountDTO>> getTopicCounts() {
+        return ResponseEntity.ok(topicService.getTopicCounts());
+    }
+
+    @Override
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                CacheStats cacheStats = cache.getNativeCache().stats();
+                stats.add(new CacheStatsDTO(
+                        name,
+                        cache.getNativeCache().estimatedSize(),
+                        cacheStats.hitCount(),
+                        cacheStats.missCount(),
+                        cacheStats.hitRate(),
+                        cacheStats.evictionCount()));
+            }
+        }
+        return ResponseEntity.ok(stats);
     }
 
     @Override
@@ -172,10 +225,69 @@ public class ExercisesServiceImp implements ExcercisesService {
         if(keyword == null || keyword.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Keyword cannot be empty");
         }
-        List<Exercises> exercises = exercisesRepo.findByTitleOrTopicsContaining(keyword.trim());
+        List<Exercises> exercises = searchIndex.isReady()
+                ? findRanked(searchIndex.search(SearchQuery.builder()
+                        .text(keyword)
+                        .fields(EnumSet.of(ExerciseSearchIndex.Field.TITLE, ExerciseSearchIndex.Field.TOPICS))
+                        .prefix(true)
+                        .build()))
+                : exercisesRepo.findByTitleOrTopicsContaining(keyword.trim());
         return ResponseEntity.ok(exercises);
     }
 
+    @Override
+    public ResponseEntity<Page<Exercises>> searchExercisesPaged(String keyword, String difficulty, int page, int size) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Keyword cannot be empty");
+        }
+        validatePage(page, size);
+        if (!searchIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is still loading");
+        }
+
+        Exercises.Difficulty difficultyEnum = null;
+        if (difficulty != null && !difficulty.trim().isEmpty()) {
+            try {
+                difficultyEnum = Exercises.Difficulty.fromString(difficulty);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+        }
+
+        Page<Long> ids = searchIndex.search(SearchQuery.builder()
+                .text(keyword)
+                .prefix(true)
+                .difficulty(difficultyEnum)
+                .build(), page, size);
+        return ResponseEntity.ok(new PageImpl<>(findRanked(ids.getContent()), ids.getPageable(), ids.getTotalElements()));
+    }
+
+    @Override
+    public ResponseEntity<List<ExerciseSuggestion>> suggestExercises(String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (limit <= 0 || limit > 50) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 50");
+        }
+        return ResponseEntity.ok(searchIndex.suggest(prefix, limit));
+    }
+
+    /**
+     * Loads exercises by id and keeps the order the search index ranked them in.
+     */
+    private List<Exercises> findRanked(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Exercises> byId = exercisesRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Exercises::getId, e -> e));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public ResponseEntity<Exercises> updateExercise(Long id, Exercises exercise){
@@ -200,30 +312,48 @@ public class ExercisesServiceImp implements ExcercisesService {
         if (exercise.getDifficulty() != null) {
             existingExercise.setDifficulty(exercise.getDifficulty());
         }
+        boolean testsChanged = false;
         if (exercise.getSampleInput() != null) {
-            existingExercise.setSampleInput(exercise.getSampleInput().trim());
+            String sampleInput = exercise.getSampleInput().trim();
+            testsChanged |= !sampleInput.equals(existingExercise.getSampleInput());
+            existingExercise.setSampleInput(sampleInput);
         }
         if (exercise.getSampleOutput() != null) {
-            existingExercise.setSampleOutput(exercise.getSampleOutput().trim());
+            String sampleOutput = exercise.getSampleOutput().trim();
+            testsChanged |= !sampleOutput.equals(existingExercise.getSampleOutput());
+            existingExercise.setSampleOutput(sampleOutput);
+        }
+        if (testsChanged) {
+            // Cached judge results were produced against the old tests
+            existingExercise.setTestVersion(existingExercise.getTestVersion() + 1);
         }
 
+        Set<Long> affectedTopicIds = topicIds(existingExercise.getTopicSet());
         existingExercise.setTopics(exercise.getTopics());
         normalizeTopics(existingExercise);
-        Exercises updatedExercise = exercisesRepo.save(existingExercise);
+        existingExercise.setTopicSet(topicService.resolveTopics(existingExercise.getTopicsList()));
+        Exercises updatedExercise = exercisesRepo.saveAndFlush(existingExercise);
+        affectedTopicIds.addAll(topicIds(updatedExercise.getTopicSet()));
+        topicService.refreshExerciseCounts(affectedTopicIds);
+        eventPublisher.publishEvent(ExerciseChangedEvent.saved(updatedExercise));
 
         return ResponseEntity.ok(updatedExercise);
     }
 
     @Override
+    @Transactional
     public ResponseEntity<Exercises> deleteExercise(Long id) {
         if(id == null || id <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid exercise ID");
         }
-        if(!exercisesRepo.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exercise not found");
-        }
-
-        exercisesRepo.deleteById(id);
+        Exercises exercise = exercisesRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Exercise not found"));
+
+        Set<Long> affectedTopicIds = topicIds(exercise.getTopicSet());
+        exercisesRepo.delete(exercise);
+        exercisesRepo.flush();
+        topicService.refreshExerciseCounts(affectedTopicIds);
+        eventPublisher.publishEvent(ExerciseChangedEvent.deleted(id));
         return ResponseEntity.noContent().build();
     }
 
@@ -249,16 +379,28 @@ public class ExercisesServiceImp implements ExcercisesService {
 
     @Override
     public ResponseEntity<Page<Exercises>> getAllExercisesPaged(int page, int size) {
+        validatePage(page, size);
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        Page<Exercises> exercisesPage = exercisesRepo.findAll(pageable);
+        return ResponseEntity.ok(exercisesPage);
+    }
+
+    private Set<Long> topicIds(Set<Topic> topics) {
+        Set<Long> ids = new HashSet<>();
+        for (Topic topic : topics) {
+            ids.add(topic.getId());
+        }
+        return ids;
+    }
+
+    private void validatePage(int page, int size) {
         if (page < 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page number must be positive");
         }
         if (size <= 0 || size > 100) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
         }
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Exercises> exercisesPage = exercisesRepo.findAll(pageable);
-        return ResponseEntity.ok(exercisesPage);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.DTOs.LeaderboardEntryDTO;
+import com.example.coder.leaderboard.LeaderboardEngine;
+import com.example.coder.leaderboard.RankedStanding;
+import com.example.coder.leaderboard.Standing;
+import com.example.coder.repo.UsersRepo;
+import com.example.coder.services.LeaderboardService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+@Service
+public class LeaderboardServiceImp implements LeaderboardService {
+
+    private final LeaderboardEngine leaderboardEngine;
+    private final UsersRepo usersRepo;
+    private final int maxLimit;
+
+    public LeaderboardServiceImp(
+            LeaderboardEngine leaderboardEngine,
+            UsersRepo usersRepo,
+            @Value("${leaderboard.max-limit:100}") int maxLimit) {
+        this.leaderboardEngine = leaderboardEngine;
+        this.usersRepo = usersRepo;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public ResponseEntity<List<LeaderboardEntryDTO>> getGlobalLeaderboard(int limit) {
+        return ResponseEntity.ok(top(null, limit));
+    }
+
+    @Override
+    public ResponseEntity<List<LeaderboardEntryDTO>> getExerciseLeaderboard(Long exerciseId, int limit) {
+        return ResponseEntity.ok(top(exerciseId, limit));
+    }
+
+    @Override
+    public ResponseEntity<LeaderboardEntryDTO> getGlobalRank(Long userId) {
+        return ResponseEntity.ok(rankOf(null, userId));
+    }
+
+    @Override
+    public ResponseEntity<LeaderboardEntryDTO> getExerciseRank(Long exerciseId, Long userId) {
+        return ResponseEntity.ok(rankOf(exerciseId, userId));
+    }
+
+    private List<LeaderboardEntryDTO> top(Long exerciseId, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + maxLimit);
+        }
+        requireReady();
+        return toEntries(leaderboardEngine.top(exerciseId, limit));
+    }
+
+    private LeaderboardEntryDTO rankOf(Long exerciseId, Long userId) {
+        requireReady();
+        RankedStanding ranked = leaderboardEngine.rankOf(exerciseId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User is not on this leaderboard"));
+        return toEntries(List.of(ranked)).get(0);
+    }
+
+    private void requireReady() {
+        if (!leaderboardEngine.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Leaderboard is still loading");
+        }
+    }
+
+    private List<LeaderboardEntryDTO> toEntries(List<RankedStanding> ranked) {
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (RankedStanding entry : ranked) {
+            userIds.add(entry.getStanding().getUserId());
+        }
+        Map<Long, String> usernames = new HashMap<>();
+        for (UsersRepo.UsernameView user : usersRepo.findUsernamesByIdIn(userIds)) {
+            usernames.put(user.getId(), user.getUsername());
+        }
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(ranked.size());
+        for (RankedStanding entry : ranked) {
+            Standing standing = entry.getStanding();
+            entries.add(new LeaderboardEntryDTO(
+                    entry.getRank(),
+                    standing.getUserId(),
+                    usernames.get(standing.getUserId()),
+                    standing.getSolved(),
+                    Double.isInfinite(standing.getTime()) ? null : standing.getTime()));
+        }
+        return entries;
+    }
+}
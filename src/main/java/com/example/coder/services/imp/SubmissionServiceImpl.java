@@ -1,40 +1,79 @@
 package com.example.coder.services.imp;
 
+import com.example.coder.DTOs.CursorPageDTO;
+import com.example.coder.DTOs.LanguageStatsDTO;
 import com.example.coder.DTOs.SubmissionCreateDTO;
 import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import com.example.coder.DTOs.SubmissionSummaryDTO;
 import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.DTOs.UserStatsDTO;
+import com.example.coder.events.SubmissionCreatedEvent;
+import com.example.coder.events.SubmissionDeletedEvent;
+import com.example.coder.events.SubmissionStatusEvent;
+import com.example.coder.judge.JudgeResultCache;
+import com.example.coder.judge.JudgeTask;
+import com.example.coder.judge.SubmissionQueue;
+import com.example.coder.metrics.SubmissionMetrics;
 import com.example.coder.model.Exercises;
 import com.example.coder.model.Languages;
 import com.example.coder.model.Submission;
 import com.example.coder.model.Users;
 import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.repo.LanguageStatsRepo;
 import com.example.coder.repo.LanguagesRepo;
+import com.example.coder.repo.SubmissionPayloadRepo;
 import com.example.coder.repo.SubmissionRepo;
+import com.example.coder.repo.UserStatsRepo;
 import com.example.coder.repo.UsersRepo;
 import com.example.coder.services.SubmissionService;
 import com.example.coder.services.UsersService;
+import com.example.coder.stats.SubmissionStats;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class SubmissionServiceImpl implements SubmissionService {
 
     private final SubmissionRepo submissionRepo;
+    private final SubmissionPayloadRepo submissionPayloadRepo;
     private final UsersRepo usersRepo;
     private final ExercisesRepo exercisesRepo;
     private final LanguagesRepo languagesRepo;
+    private final UserStatsRepo userStatsRepo;
+    private final LanguageStatsRepo languageStatsRepo;
+    private final SubmissionStats submissionStats;
+    private final SubmissionMetrics submissionMetrics;
+    private final JudgeResultCache judgeResultCache;
+    private final SubmissionQueue submissionQueue;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public SubmissionResponseDTO createSubmission(Long userId, SubmissionCreateDTO dto) {
+        long start = System.nanoTime();
+        boolean created = false;
         try {
             Users user = usersRepo.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
@@ -45,10 +84,8 @@ public class SubmissionServiceImpl implements SubmissionService {
             Languages language = languagesRepo.findById(dto.getLanguageId())
                     .orElseThrow(() -> new RuntimeException("Language not found with ID: " + dto.getLanguageId()));
 
-            System.out.println("Creating submission for:");
-            System.out.println("- User: " + user.getUsername());
-            System.out.println("- Exercise: " + exercise.getTitle());
-            System.out.println("- Language: " + language.getName() + " (Judge0 Code: " + language.getCode() + ")");
+            log.debug("Creating submission for user {} on exercise {} in {} (judge code {})",
+                    user.getUsername(), exercise.getId(), language.getName(), language.getCode());
 
             Submission submission = new Submission();
             submission.setUser(user);
@@ -56,85 +93,202 @@ public class SubmissionServiceImpl implements SubmissionService {
             submission.setLanguage(language);
             submission.setSourceCode(dto.getSourceCode());
             submission.setStatus(Submission.Status.PENDING);
+            submission.setResultKey(judgeResultCache.keyFor(exercise, language, dto.getSourceCode()));
 
             Submission saved = submissionRepo.save(submission);
+            submissionStats.recordCreated(saved);
 
-            executeCodeAsync(saved.getId(), language.getCode());
+            Optional<JudgeResultCache.CachedResult> cached = judgeResultCache.lookup(saved.getResultKey());
+            if (cached.isPresent()) {
+                completeFromCache(saved, cached.get());
+            } else {
+                executeCodeAsync(saved, exercise, language);
+            }
 
-            return convertToResponseDTO(saved);
+            SubmissionResponseDTO response = convertToResponseDTO(saved);
+            created = true;
+            return response;
         } catch (Exception e) {
-            System.err.println("Error creating submission: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error creating submission for user {}: {}", userId, e.getMessage(), e);
             throw new RuntimeException("Failed to create submission: " + e.getMessage());
+        } finally {
+            submissionMetrics.recordCreate(System.nanoTime() - start, created);
         }
     }
 
     @Override
     @Transactional(readOnly = true)
     public SubmissionResponseDTO getSubmissionById(Long id) {
-        Submission submission = submissionRepo.findById(id)
+        Submission submission = submissionRepo.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("Submission không tồn tại"));
         return convertToResponseDTO(submission);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SubmissionResponseDTO> getSubmissionsByUser(Long userId) {
-        return submissionRepo.findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public SubmissionStatusDTO getSubmissionStatus(Long id) {
+        return submissionRepo.findStatusById(id)
+                .orElseThrow(() -> new RuntimeException("Submission không tồn tại"));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<SubmissionResponseDTO> getSubmissionsByUserPaged(Long userId, Pageable pageable) {
-        return submissionRepo.findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(this::convertToResponseDTO);
+    public Optional<String> getSubmissionPayload(Long id, SubmissionPayloadRepo.Field field) {
+        return submissionPayloadRepo.find(id, field);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SubmissionResponseDTO> getSubmissionsByExercise(Long exerciseId) {
-        return submissionRepo.findByExerciseIdOrderByCreatedAtDesc(exerciseId)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<SubmissionSummaryDTO> getSubmissionsByUser(Long userId, boolean includeSource) {
+        return withPayloads(submissionRepo.findSummariesByUserId(userId), includeSource);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SubmissionResponseDTO> getPendingSubmissions() {
-        return submissionRepo.findByStatusOrderByCreatedAtAsc(Submission.Status.PENDING)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public Page<SubmissionSummaryDTO> getSubmissionsByUserPaged(Long userId, Pageable pageable, boolean includeSource) {
+        return withPayloads(submissionRepo.findSummariesByUserId(userId, pageable), includeSource);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SubmissionSummaryDTO> getSubmissionsByUserCursor(
+            Long userId,
+            String cursor,
+            int size,
+            boolean includeSource,
+            boolean includeTotal) {
+        if (size <= 0 || size > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be between 1 and 100");
+        }
+
+        // One row past the page tells whether there is a next page without counting
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<SubmissionSummaryDTO> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = submissionRepo.findSummariesByUserIdFirstKeyset(userId, limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = submissionRepo.findSummariesByUserIdBeforeKeyset(
+                    userId, LocalDateTime.parse(position[0]), Long.valueOf(position[1]), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<SubmissionSummaryDTO> items = withPayloads(hasNext ? rows.subList(0, size) : rows, includeSource);
+
+        String nextCursor = null;
+        if (hasNext) {
+            SubmissionSummaryDTO last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        Long total = includeTotal ? submissionRepo.countByUserId(userId) : null;
+
+        return new CursorPageDTO<>(items, nextCursor, hasNext, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SubmissionSummaryDTO> getSubmissionsByExercise(Long exerciseId, boolean includeSource) {
+        return withPayloads(submissionRepo.findSummariesByExerciseId(exerciseId), includeSource);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SubmissionSummaryDTO> getPendingSubmissions(boolean includeSource) {
+        return withPayloads(submissionRepo.findSummariesByStatus(Submission.Status.PENDING), includeSource);
     }
 
     @Override
     public SubmissionResponseDTO updateSubmissionResult(Long id, SubmissionUpdateDTO dto) {
-        Submission submission = submissionRepo.findById(id)
+        Submission submission = submissionRepo.findDetailById(id)
                 .orElseThrow(() -> new RuntimeException("Submission không tồn tại"));
 
         if (dto.getStatus() != null) {
-            submission.setStatus(Submission.Status.valueOf(dto.getStatus()));
+            submissionStats.recordStatusChange(submission, Submission.Status.valueOf(dto.getStatus()));
+        }
+        applyResult(submission, dto);
+
+        Submission updated = submissionRepo.save(submission);
+        publishStatus(updated);
+        return convertToResponseDTO(updated);
+    }
+
+    /**
+     * Writes verdicts from this node's judge workers in one transaction. The entities are
+     * loaded with one query and flushed together at commit, so with
+     * {@code hibernate.jdbc.batch_size} set the updates go out as JDBC batches.
+     * <p>
+     * Only submissions this node still holds are written. A worker that outlived its lease
+     * while another node re-claimed and judged the submission has its verdict dropped, as do
+     * ids that no longer exist.
+     */
+    @Override
+    public void updateSubmissionResults(Map<Long, SubmissionUpdateDTO> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<Long> held = submissionQueue.lockHeld(results.keySet());
+        if (held.size() < results.size()) {
+            log.debug("Dropped {} verdicts for submissions no longer leased by this node", results.size() - held.size());
+        }
+        if (held.isEmpty()) {
+            return;
+        }
+        List<Submission> submissions = submissionRepo.findDetailsByIdIn(held);
+
+        Map<Submission, Submission.Status> newStatuses = new LinkedHashMap<>();
+        for (Submission submission : submissions) {
+            String status = results.get(submission.getId()).getStatus();
+            if (status != null) {
+                newStatuses.put(submission, Submission.Status.valueOf(status));
+            }
+        }
+        submissionStats.recordStatusChanges(newStatuses);
+
+        for (Submission submission : submissions) {
+            applyResult(submission, results.get(submission.getId()));
+            judgeResultCache.store(submission);
+            publishStatus(submission);
+        }
+    }
+
+    /**
+     * Finishes a new submission with a verdict judged earlier for the same result key, without
+     * sending it to the judge.
+     */
+    private void completeFromCache(Submission submission, JudgeResultCache.CachedResult cached) {
+        submissionStats.recordStatusChange(submission, cached.status());
+        applyResult(submission, cached.toUpdate());
+        publishStatus(submission);
+    }
+
+    private void applyResult(Submission submission, SubmissionUpdateDTO dto) {
+        if (dto.getStatus() != null) {
+            Submission.Status status = Submission.Status.valueOf(dto.getStatus());
+            submissionMetrics.recordVerdict(submission, status);
+            submission.setStatus(status);
         }
         submission.setStdout(dto.getStdout());
         submission.setStderr(dto.getStderr());
         submission.setCompileOutput(dto.getCompileOutput());
         submission.setTime(dto.getTime());
+        submission.setClaimedBy(null);
+        submission.setLeaseUntil(null);
+    }
 
-        Submission updated = submissionRepo.save(submission);
-        return convertToResponseDTO(updated);
+    private void publishStatus(Submission submission) {
+        eventPublisher.publishEvent(new SubmissionStatusEvent(new SubmissionStatusDTO(
+                submission.getId(),
+                submission.getUser().getId(),
+                submission.getExercise().getId(),
+                submission.getStatus(),
+                submission.getTime()
+        )));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<SubmissionResponseDTO> getUserSubmissionsForExercise(Long userId, Long exerciseId) {
-        return submissionRepo.findByUserIdAndExerciseIdOrderByCreatedAtDesc(userId, exerciseId)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+    public List<SubmissionSummaryDTO> getUserSubmissionsForExercise(Long userId, Long exerciseId, boolean includeSource) {
+        return withPayloads(submissionRepo.findSummariesByUserIdAndExerciseId(userId, exerciseId), includeSource);
     }
 
     @Override
@@ -147,14 +301,16 @@ public class SubmissionServiceImpl implements SubmissionService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Object[]> getSubmissionStatsByUser(Long userId) {
-        return submissionRepo.countSubmissionsByStatusForUser(userId);
+    public UserStatsDTO getSubmissionStatsByUser(Long userId) {
+        return userStatsRepo.findById(userId)
+                .map(UserStatsDTO::from)
+                .orElseGet(() -> UserStatsDTO.empty(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Object[]> getSubmissionStatsByLanguage() {
-        return submissionRepo.countSubmissionsByLanguage();
+    public List<LanguageStatsDTO> getSubmissionStatsByLanguage() {
+        return languageStatsRepo.findAllWithNames();
     }
 
     @Override
@@ -166,11 +322,89 @@ public class SubmissionServiceImpl implements SubmissionService {
             throw new RuntimeException("Không có quyền xóa submission này");
         }
 
+        submissionStats.recordDeleted(submission);
         submissionRepo.delete(submission);
+        eventPublisher.publishEvent(new SubmissionDeletedEvent(
+                submission.getId(), submission.getUser().getId(), submission.getExercise().getId()));
     }
 
-    private void executeCodeAsync(Long submissionId, Integer judge0LanguageCode) {
-        System.out.println("Executing code for submission " + submissionId + " with Judge0 language code: " + judge0LanguageCode);
+    private void executeCodeAsync(Submission submission, Exercises exercise, Languages language) {
+        // Picked up by JudgeDispatcher once this transaction commits
+        eventPublisher.publishEvent(new SubmissionCreatedEvent(new JudgeTask(
+                submission.getId(),
+                language.getCode(),
+                submission.getSourceCode(),
+                exercise.getSampleInput(),
+                exercise.getSampleOutput()
+        )));
+    }
+
+    private String encodeCursor(String createdAt, Long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.valueOf(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    /**
+     * Turns projected list items into full responses with one extra query for the whole
+     * list, only when the caller asked for source code and outputs.
+     */
+    private List<SubmissionSummaryDTO> withPayloads(List<SubmissionSummaryDTO> submissions, boolean includeSource) {
+        if (!includeSource || submissions.isEmpty()) {
+            return submissions;
+        }
+        Map<Long, SubmissionRepo.PayloadView> payloads = loadPayloads(submissions);
+        List<SubmissionSummaryDTO> detailed = new ArrayList<>(submissions.size());
+        for (SubmissionSummaryDTO summary : submissions) {
+            detailed.add(withPayload(summary, payloads));
+        }
+        return detailed;
+    }
+
+    private Page<SubmissionSummaryDTO> withPayloads(Page<SubmissionSummaryDTO> page, boolean includeSource) {
+        if (!includeSource || !page.hasContent()) {
+            return page;
+        }
+        Map<Long, SubmissionRepo.PayloadView> payloads = loadPayloads(page.getContent());
+        return page.map(summary -> withPayload(summary, payloads));
+    }
+
+    private Map<Long, SubmissionRepo.PayloadView> loadPayloads(List<SubmissionSummaryDTO> submissions) {
+        List<Long> ids = new ArrayList<>(submissions.size());
+        for (SubmissionSummaryDTO summary : submissions) {
+            ids.add(summary.getId());
+        }
+        Map<Long, SubmissionRepo.PayloadView> payloads = new HashMap<>();
+        for (SubmissionRepo.PayloadView payload : submissionRepo.findPayloadsByIdIn(ids)) {
+            payloads.put(payload.getId(), payload);
+        }
+        return payloads;
+    }
+
+    private SubmissionResponseDTO withPayload(SubmissionSummaryDTO summary, Map<Long, SubmissionRepo.PayloadView> payloads) {
+        SubmissionResponseDTO dto = new SubmissionResponseDTO(summary);
+        SubmissionRepo.PayloadView payload = payloads.get(summary.getId());
+        if (payload != null) {
+            dto.setSourceCode(payload.getSourceCode());
+            dto.setStdout(payload.getStdout());
+            dto.setStderr(payload.getStderr());
+            dto.setCompileOutput(payload.getCompileOutput());
+        }
+        return dto;
     }
 
     private SubmissionResponseDTO convertToResponseDTO(Submission submission) {
@@ -194,12 +428,13 @@ public class SubmissionServiceImpl implements SubmissionService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<SubmissionResponseDTO> getSubmissionsByUserPagedWithFilters(
+    public Page<SubmissionSummaryDTO> getSubmissionsByUserPagedWithFilters(
             Long userId,
             Pageable pageable,
             Long languageId,
             String status,
-            String exerciseKeyword) {
+            String exerciseKeyword,
+            boolean includeSource) {
 
         Submission.Status statusEnum = null;
         if (status != null && !status.isEmpty()) {
@@ -210,12 +445,12 @@ public class SubmissionServiceImpl implements SubmissionService {
             }
         }
 
-        return submissionRepo.findByUserIdWithFilters(
+        return withPayloads(submissionRepo.findSummariesByUserIdWithFilters(
                 userId,
                 languageId,
                 statusEnum,
                 exerciseKeyword,
                 pageable
-        ).map(this::convertToResponseDTO);
+        ), includeSource);
     }
 }
@@ -0,0 +1,119 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.DTOs.TopicCountDTO;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Topic;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.repo.TopicRepo;
+import com.example.coder.services.TopicService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+@Slf4j
+@Service
+public class TopicServiceImp implements TopicService {
+
+    private final TopicRepo topicRepo;
+    private final ExercisesRepo exercisesRepo;
+    private final TransactionTemplate newTransaction;
+
+    public TopicServiceImp(TopicRepo topicRepo, ExercisesRepo exercisesRepo,
+                           PlatformTransactionManager transactionManager) {
+        this.topicRepo = topicRepo;
+        this.exercisesRepo = exercisesRepo;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Maps topic names to topic rows, creating the ones that do not exist yet.
+     * <p>
+     * Each new topic is inserted in its own transaction, so a concurrent writer creating the
+     * same topic fails on the unique slug without breaking the caller's transaction. The
+     * missing topics are then read back with a locking read, which sees rows committed by
+     * either side. A topic may outlive a caller that rolls back; it keeps a count of zero.
+     */
+    @Override
+    @Transactional
+    public Set<Topic> resolveTopics(List<String> names) {
+        Map<String, String> namesBySlug = new LinkedHashMap<>();
+        for (String name : names) {
+            namesBySlug.putIfAbsent(Topic.slugOf(name), name.trim());
+        }
+        if (namesBySlug.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Topic> topics = new HashSet<>(topicRepo.findBySlugIn(namesBySlug.keySet()));
+        for (Topic topic : topics) {
+            namesBySlug.remove(topic.getSlug());
+        }
+        if (namesBySlug.isEmpty()) {
+            return topics;
+        }
+
+        namesBySlug.forEach(this::createIfAbsent);
+        topics.addAll(topicRepo.findLockedBySlugIn(namesBySlug.keySet()));
+        return topics;
+    }
+
+    private void createIfAbsent(String slug, String name) {
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    topicRepo.saveAndFlush(new Topic(null, name, slug, 0)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Topic {} was created concurrently", slug);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void refreshExerciseCounts(Collection<Long> topicIds) {
+        if (!topicIds.isEmpty()) {
+            topicRepo.refreshExerciseCounts(topicIds);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> getTopicNames() {
+        return topicRepo.findNamesInUse();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TopicCountDTO> getTopicCounts() {
+        return topicRepo.findTopicCounts();
+    }
+
+    /**
+     * Links exercises saved before topics were normalized to their topic rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillExerciseTopics() {
+        List<Exercises> unlinked = exercisesRepo.findWithUnlinkedTopics();
+        if (unlinked.isEmpty()) {
+            return;
+        }
+
+        Set<Long> topicIds = new HashSet<>();
+        for (Exercises exercise : unlinked) {
+            Set<Topic> topics = resolveTopics(exercise.getTopicsList());
+            exercise.setTopicSet(topics);
+            topics.forEach(topic -> topicIds.add(topic.getId()));
+        }
+        exercisesRepo.flush();
+        refreshExerciseCounts(topicIds);
+        log.info("Linked topics for {} exercises", unlinked.size());
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.coder.services.imp;
 
+import com.example.coder.events.UserChangedEvent;
 import com.example.coder.model.Users;
 import com.example.coder.repo.UsersRepo;
+import com.example.coder.security.PrincipalCache;
 import com.example.coder.services.UsersService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +25,8 @@ public class UsersServiceImp implements UsersService {
 
     private final UsersRepo usersRepo;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public ResponseEntity<Users> addUser(Users user) {
@@ -65,23 +70,37 @@ public class UsersServiceImp implements UsersService {
         }
 
         Users existingUser = existingUserOpt.get();
+        String previousUsername = existingUser.getUsername();
 
         validateUserForUpdate(id, user);
 
         if (user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
             existingUser.setUsername(user.getUsername().trim());
         }
+        boolean revokeTokens = false;
+        if (user.getUsername() != null && !user.getUsername().trim().isEmpty()
+                && !user.getUsername().trim().equals(previousUsername)) {
+            revokeTokens = true;
+        }
         if (user.getPassword() != null && !user.getPassword().trim().isEmpty()) {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
+            revokeTokens = true;
         }
         if (user.getEmail() != null && !user.getEmail().trim().isEmpty()) {
             existingUser.setEmail(user.getEmail().trim());
         }
-        if (user.getRole() != null) {
+        if (user.getRole() != null && user.getRole() != existingUser.getRole()) {
             existingUser.setRole(user.getRole());
+            revokeTokens = true;
+        }
+        if (revokeTokens) {
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
         }
 
         Users updatedUser = usersRepo.save(existingUser);
+        eventPublisher.publishEvent(UserChangedEvent.saved(updatedUser));
+        principalCache.evict(previousUsername);
+        principalCache.evict(updatedUser.getUsername());
         return ResponseEntity.ok(updatedUser);
     }
 
@@ -91,11 +110,12 @@ public class UsersServiceImp implements UsersService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid user ID");
         }
 
-        if (!usersRepo.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with ID: " + id);
-        }
+        Users user = usersRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with ID: " + id));
 
-        usersRepo.deleteById(id);
+        usersRepo.delete(user);
+        principalCache.evict(user.getUsername());
+        eventPublisher.publishEvent(UserChangedEvent.deleted(user.getId()));
         return ResponseEntity.noContent().build();
     }
 
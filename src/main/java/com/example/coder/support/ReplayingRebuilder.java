@@ -0,0 +1,102 @@
+package com.example.coder.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds an in-memory structure that is read under a shared lock, changed incrementally under
+ * an exclusive one, and periodically rebuilt from scratch.
+ * <p>
+ * A rebuild loads the new state without holding the lock. Changes applied while it is
+ * loading go to the current state and are recorded, then replayed on top of the new state
+ * before it is swapped in, so none is lost. Only one rebuild runs at a time.
+ */
+public class ReplayingRebuilder<S> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private S state;
+    private List<Consumer<S>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public ReplayingRebuilder(S initial) {
+        this.state = initial;
+    }
+
+    /**
+     * False until the first rebuild has finished.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads a new state and swaps it in. Returns the new state, or null without calling
+     * {@code loader} if another rebuild is already running.
+     */
+    public S rebuild(Supplier<S> loader) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            S rebuilt = loader.get();
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                state = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return rebuilt;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Applies a change to the current state, and to the one being loaded if a rebuild is
+     * running. The change may run twice, so it must not have side effects outside the state.
+     */
+    public void apply(Consumer<S> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public <T> T read(Function<S, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.coder;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+/**
+ * One embedded MariaDB per test JVM, for tests of native SQL that H2 cannot run (SKIP LOCKED,
+ * INSERT IGNORE, ON DUPLICATE KEY UPDATE, MariaDB date functions). Each test class uses its own
+ * database, created on first connect and recreated by Hibernate's create-drop.
+ */
+public final class EmbeddedMariaDB {
+
+    private static DB db;
+    private static int port;
+
+    private EmbeddedMariaDB() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry, String database) {
+        registry.add("spring.datasource.url", () -> jdbcUrl(database));
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.mariadb.jdbc.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MariaDBDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    public static synchronized String jdbcUrl(String database) {
+        if (db == null) {
+            start();
+        }
+        return "jdbc:mariadb://localhost:" + port + "/" + database + "?createDatabaseIfNotExist=true";
+    }
+
+    private static void start() {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder().setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mariadbd refuses to run as root unless told to, e.g. in containers
+            config.addArg("--user=root");
+        }
+        DBConfiguration dbConfig = config.build();
+        try {
+            db = DB.newEmbeddedDB(dbConfig);
+            db.start();
+        } catch (ManagedProcessException e) {
+            throw new IllegalStateException("Could not start embedded MariaDB", e);
+        }
+        // mariaDB4j stops the server and removes its files when the JVM exits
+        port = dbConfig.getPort();
+    }
+}
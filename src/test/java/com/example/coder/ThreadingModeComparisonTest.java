@@ -0,0 +1,89 @@
+package com.example.coder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Concurrency vs latency of the request path on Tomcat's default 200 platform threads versus
+ * one virtual thread per request. Each simulated request holds one of 40 JDBC connections
+ * (the virtual profile's Hikari size) for 5 ms and then waits 20 ms on an HTTP call, the
+ * shape of a submission read followed by a Judge0 round trip. Opt-in and Java 21 only:
+ * {@code mvn test -Pjava21 -Dbenchmark=true -Dtest=ThreadingModeComparisonTest}.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModeComparisonTest {
+
+    private static final int TOMCAT_THREADS = 200;
+    private static final int JDBC_POOL = 40;
+    private static final long JDBC_MS = 5;
+    private static final long HTTP_MS = 20;
+
+    @Test
+    void compareConcurrencyAndLatency() throws Exception {
+        System.out.printf("%-9s %11s %9s %9s %11s%n", "mode", "concurrency", "p50 ms", "p99 ms", "req/s");
+        for (int concurrency : new int[]{100, 500, 2_000, 5_000}) {
+            run("platform", concurrency, () -> Executors.newFixedThreadPool(TOMCAT_THREADS));
+            run("virtual", concurrency, VirtualThreadExecutorService::new);
+        }
+    }
+
+    private void run(String mode, int concurrency, Supplier<ExecutorService> executors) throws Exception {
+        Semaphore connections = new Semaphore(JDBC_POOL, true);
+        ExecutorService executor = executors.get();
+        long start = System.nanoTime();
+        List<Future<Long>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long submitted = System.nanoTime();
+            requests.add(executor.submit(() -> {
+                connections.acquire();
+                try {
+                    Thread.sleep(JDBC_MS);
+                } finally {
+                    connections.release();
+                }
+                Thread.sleep(HTTP_MS);
+                return System.nanoTime() - submitted;
+            }));
+        }
+
+        long[] latencies = new long[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            latencies[i] = requests.get(i).get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %11d %9.1f %9.1f %11.0f%n", mode, concurrency,
+                latencies[concurrency / 2] / 1e6,
+                latencies[(int) (concurrency * 0.99)] / 1e6,
+                concurrency / seconds);
+    }
+
+    /**
+     * Thread-per-task executor on virtual threads, built through Spring so this compiles on 17.
+     */
+    private static final class VirtualThreadExecutorService extends ThreadPoolExecutor {
+        VirtualThreadExecutorService() {
+            super(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new VirtualThreadTaskExecutor("request-").getVirtualThreadFactory());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.coder.admission;
+
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.model.Users;
+import com.example.coder.repo.SubmissionRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlTest {
+
+    private final SubmissionRepo submissionRepo = mock(SubmissionRepo.class);
+    private final AdmissionControl admission = new AdmissionControl(submissionRepo,
+            new SubmissionMetrics(new SimpleMeterRegistry()), true,
+            6, 2, 0, 0, 600, 100, 50, 60, 15);
+
+    @Test
+    void bucketAdmitsBurstThenOnePerInterval() {
+        long interval = TimeUnit.SECONDS.toNanos(10);
+        TokenBucket bucket = new TokenBucket(interval, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(interval, bucket.tryAcquire(0));
+
+        assertEquals(0, bucket.tryAcquire(interval));
+        assertTrue(bucket.tryAcquire(interval) > 0);
+        assertTrue(bucket.isFull(4 * interval));
+    }
+
+    @Test
+    void usersAreLimitedByRole() {
+        assertTrue(admission.admit(AdmissionControl.userKey(1L), Users.Role.USER, "10.0.0.1").admitted());
+        assertTrue(admission.admit(AdmissionControl.userKey(1L), Users.Role.USER, "10.0.0.1").admitted());
+
+        AdmissionControl.Decision rejected = admission.admit(AdmissionControl.userKey(1L), Users.Role.USER, "10.0.0.1");
+        assertEquals(AdmissionControl.Reason.USER_RATE, rejected.reason());
+        assertTrue(rejected.retryAfterSeconds() >= 1);
+
+        assertTrue(admission.admit(AdmissionControl.userKey(2L), Users.Role.USER, "10.0.0.1").admitted());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(admission.admit(AdmissionControl.userKey(3L), Users.Role.ADMIN, "10.0.0.1").admitted());
+        }
+    }
+
+    @Test
+    void throttledUserDoesNotDrainTheirAddressBucket() {
+        AdmissionControl strictIp = new AdmissionControl(submissionRepo,
+                new SubmissionMetrics(new SimpleMeterRegistry()), true,
+                6, 2, 0, 0, 6, 3, 50, 60, 15);
+
+        assertTrue(strictIp.admit(AdmissionControl.userKey(1L), Users.Role.USER, "10.0.0.1").admitted());
+        assertTrue(strictIp.admit(AdmissionControl.userKey(1L), Users.Role.USER, "10.0.0.1").admitted());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(AdmissionControl.Reason.USER_RATE,
+                    strictIp.admit(AdmissionControl.userKey(1L), Users.Role.USER, "10.0.0.1").reason());
+        }
+
+        // One token left for everyone else behind the address
+        assertTrue(strictIp.admit(AdmissionControl.userKey(2L), Users.Role.USER, "10.0.0.1").admitted());
+        assertEquals(AdmissionControl.Reason.IP_RATE,
+                strictIp.admit(AdmissionControl.userKey(2L), Users.Role.USER, "10.0.0.1").reason());
+    }
+
+    @Test
+    void deepBacklogShedsEveryone() {
+        SubmissionRepo.PendingBacklogView backlog = mock(SubmissionRepo.PendingBacklogView.class);
+        when(backlog.getDepth()).thenReturn(100L);
+        when(backlog.getOldestCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(5));
+        when(submissionRepo.findPendingBacklog()).thenReturn(backlog);
+
+        admission.refreshBacklog();
+
+        AdmissionControl.Decision rejected = admission.admit(AdmissionControl.userKey(3L), Users.Role.ADMIN, "10.0.0.1");
+        assertEquals(AdmissionControl.Reason.OVERLOADED, rejected.reason());
+        assertEquals(15, rejected.retryAfterSeconds());
+
+        when(backlog.getDepth()).thenReturn(0L);
+        when(backlog.getOldestCreatedAt()).thenReturn(null);
+        admission.refreshBacklog();
+
+        assertTrue(admission.admit(AdmissionControl.userKey(3L), Users.Role.ADMIN, "10.0.0.1").admitted());
+    }
+
+    @Test
+    void oldBacklogShedsEveryone() {
+        SubmissionRepo.PendingBacklogView backlog = mock(SubmissionRepo.PendingBacklogView.class);
+        when(backlog.getDepth()).thenReturn(1L);
+        when(backlog.getOldestCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(90));
+        when(submissionRepo.findPendingBacklog()).thenReturn(backlog);
+
+        admission.refreshBacklog();
+
+        assertEquals(AdmissionControl.Reason.OVERLOADED,
+                admission.admit(AdmissionControl.userKey(3L), Users.Role.ADMIN, "10.0.0.1").reason());
+    }
+}
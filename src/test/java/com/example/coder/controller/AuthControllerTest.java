@@ -0,0 +1,79 @@
+package com.example.coder.controller;
+
+import com.example.coder.repo.UsersRepo;
+import com.example.coder.security.JwtUtil;
+import com.example.coder.security.PasswordHasher;
+import com.example.coder.services.AuthService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void loginIsRejectedWith503WhenTheHashingQueueIsFull() throws Exception {
+        PasswordHasher passwordHasher = new PasswordHasher(blockingEncoder(), 1, 1);
+        // One check running and one waiting fill the pool
+        passwordHasher.matches("secret", "hash");
+        passwordHasher.matches("secret", "hash");
+
+        UsersRepo usersRepo = mock(UsersRepo.class);
+        when(usersRepo.findByUsername(any())).thenReturn(Optional.empty());
+        AuthService authService = new AuthService(usersRepo, passwordHasher,
+                new JwtUtil("mySecretKey123456789012345678901234567890123", "k1", "", 60_000L));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService)).build();
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"alice\",\"password\":\"secret\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Hệ thống đang bận, vui lòng thử lại sau"));
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.coder.controller;
+
+import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.admission.AdmissionControl;
+import com.example.coder.events.SubmissionStatusBroadcaster;
+import com.example.coder.model.Users;
+import com.example.coder.security.CustomUserDetailsService;
+import com.example.coder.security.UserPrincipal;
+import com.example.coder.services.SubmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SubmissionControllerTest {
+
+    private static final String CLIENT_IP = "10.0.0.9";
+
+    private final SubmissionService submissionService = mock(SubmissionService.class);
+    private final AdmissionControl admissionControl = mock(AdmissionControl.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new SubmissionController(submissionService,
+                mock(CustomUserDetailsService.class), mock(SubmissionStatusBroadcaster.class), admissionControl)).build();
+        when(submissionService.createSubmission(any(), any())).thenReturn(new SubmissionResponseDTO());
+    }
+
+    @Test
+    void rejectedSubmissionGets429WithRetryAfter() throws Exception {
+        when(admissionControl.admit(anyString(), any(), anyString()))
+                .thenReturn(new AdmissionControl.Decision(AdmissionControl.Reason.USER_RATE, 7));
+
+        mockMvc.perform(submit())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"))
+                .andExpect(jsonPath("$.error").value(AdmissionControl.Reason.USER_RATE.getMessage()));
+
+        verifyNoInteractions(submissionService);
+    }
+
+    @Test
+    void authenticatedCallerIsLimitedByTheirIdAndRole() throws Exception {
+        admitEveryone();
+        UserPrincipal principal = new UserPrincipal(5L, "alice", "", Users.Role.ADMIN, 0);
+
+        mockMvc.perform(submit().principal(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())))
+                .andExpect(status().isOk());
+
+        verify(admissionControl).admit(AdmissionControl.userKey(5L), Users.Role.ADMIN, CLIENT_IP);
+    }
+
+    @Test
+    void anonymousCallerIsLimitedByAddressNotByTheBodyUserId() throws Exception {
+        admitEveryone();
+
+        mockMvc.perform(submit()).andExpect(status().isOk());
+
+        verify(admissionControl).admit(AdmissionControl.anonymousKey(CLIENT_IP), Users.Role.USER, CLIENT_IP);
+    }
+
+    private void admitEveryone() {
+        when(admissionControl.admit(anyString(), any(), anyString()))
+                .thenReturn(new AdmissionControl.Decision(null, 0));
+    }
+
+    private static MockHttpServletRequestBuilder submit() {
+        return post("/api/submissions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":42,\"exerciseId\":3,\"languageId\":1,\"sourceCode\":\"print(1)\"}")
+                .with(request -> {
+                    request.setRemoteAddr(CLIENT_IP);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.coder.events;
+
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import com.example.coder.model.Submission;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Subscribes through a real MVC stack so the emitters get the container callbacks, and
+ * publishes through the application context so the after-commit listener is exercised.
+ * Writes happen on the fan-out pool, so the stream contents are awaited.
+ */
+@SpringJUnitConfig(SubmissionStatusBroadcasterTest.Config.class)
+class SubmissionStatusBroadcasterTest {
+
+    @Autowired
+    private SubmissionStatusBroadcaster broadcaster;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+    private final CountDownLatch stall = new CountDownLatch(1);
+    private final CountDownLatch stalledWriteStarted = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        stall.countDown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(broadcaster))
+                .addFilters(new StallingFilter(stall, stalledWriteStarted))
+                .build();
+    }
+
+    @Test
+    void statusIsDeliveredOnlyOnceTheTransactionCommits() throws Exception {
+        MvcResult stream = subscribe("/users/7");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            publisher.publishEvent(new SubmissionStatusEvent(status(1L, Submission.Status.SUCCESS)));
+            assertFalse(body(stream).contains("SUCCESS"));
+        });
+        await(() -> body(stream).contains("\"status\":\"SUCCESS\""));
+        assertTrue(body(stream).contains("event:status"));
+
+        transaction.executeWithoutResult(status -> {
+            publisher.publishEvent(new SubmissionStatusEvent(status(2L, Submission.Status.FAIL)));
+            status.setRollbackOnly();
+        });
+        // Delivered after anything the rolled back transaction could have queued
+        publisher.publishEvent(new SubmissionStatusEvent(status(3L, Submission.Status.ERROR)));
+        await(() -> body(stream).contains("ERROR"));
+        assertFalse(body(stream).contains("FAIL"));
+        complete(stream);
+    }
+
+    @Test
+    void finalStatusEndsTheSubmissionStream() throws Exception {
+        MvcResult stream = subscribe("/submissions/1");
+        await(() -> body(stream).contains("PENDING"));
+
+        publisher.publishEvent(new SubmissionStatusEvent(status(1L, Submission.Status.FAIL)));
+
+        await(() -> body(stream).contains("FAIL"));
+        // Completing the emitter hands the request back to the container, which then ends it
+        await(() -> asyncContext(stream).getDispatchedPath() != null);
+        complete(stream);
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void subscribersAreRemovedOnCompletionTimeoutAndError() throws Exception {
+        MvcResult completed = subscribe("/users/7");
+        MvcResult timedOut = subscribe("/users/7");
+        MvcResult failed = subscribe("/submissions/1");
+        assertEquals(3, broadcaster.subscriberCount());
+
+        complete(completed);
+        assertEquals(2, broadcaster.subscriberCount());
+
+        MockAsyncContext timeoutContext = asyncContext(timedOut);
+        for (AsyncListener listener : List.copyOf(timeoutContext.getListeners())) {
+            listener.onTimeout(new AsyncEvent(timeoutContext));
+        }
+        timeoutContext.complete();
+        assertEquals(1, broadcaster.subscriberCount());
+
+        MockAsyncContext errorContext = asyncContext(failed);
+        for (AsyncListener listener : List.copyOf(errorContext.getListeners())) {
+            listener.onError(new AsyncEvent(errorContext, new IOException("Connection reset")));
+        }
+        errorContext.complete();
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void stalledSubscriberBlocksNeitherThePublisherNorOtherSubscribers() throws Exception {
+        MvcResult stalled = subscribe("/stalled/users/7");
+        MvcResult healthy = subscribe("/users/7");
+
+        // Runs the listener on the calling thread, as the judge result writer does
+        CompletableFuture.runAsync(() -> publisher.publishEvent(
+                        new SubmissionStatusEvent(status(1L, Submission.Status.SUCCESS))))
+                .get(2, TimeUnit.SECONDS);
+
+        assertTrue(stalledWriteStarted.await(2, TimeUnit.SECONDS));
+        await(() -> body(healthy).contains("SUCCESS"));
+
+        stall.countDown();
+        complete(healthy);
+        complete(stalled);
+    }
+
+    private MvcResult subscribe(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static void complete(MvcResult stream) {
+        asyncContext(stream).complete();
+    }
+
+    private static MockAsyncContext asyncContext(MvcResult stream) {
+        return (MockAsyncContext) stream.getRequest().getAsyncContext();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static String body(MvcResult stream) {
+        try {
+            return stream.getResponse().getContentAsString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SubmissionStatusDTO status(Long submissionId, Submission.Status status) {
+        return new SubmissionStatusDTO(submissionId, 7L, 3L, status, null);
+    }
+
+    @RestController
+    static class StreamController {
+        private final SubmissionStatusBroadcaster broadcaster;
+
+        StreamController(SubmissionStatusBroadcaster broadcaster) {
+            this.broadcaster = broadcaster;
+        }
+
+        @GetMapping("/submissions/{id}")
+        SseEmitter submission(@PathVariable Long id) {
+            return broadcaster.subscribeToSubmission(id, () -> status(id, Submission.Status.PENDING));
+        }
+
+        @GetMapping({"/users/{id}", "/stalled/users/{id}"})
+        SseEmitter user(@PathVariable Long id) {
+            return broadcaster.subscribeToUser(id);
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        SubmissionStatusBroadcaster broadcaster() {
+            return new SubmissionStatusBroadcaster(60_000, 2);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoResourceTransactionManager();
+        }
+    }
+
+    /**
+     * Makes writes to {@code /stalled/**} responses block, like a client that stopped reading.
+     */
+    static class StallingFilter extends OncePerRequestFilter {
+        private final CountDownLatch stall;
+        private final CountDownLatch writeStarted;
+
+        StallingFilter(CountDownLatch stall, CountDownLatch writeStarted) {
+            this.stall = stall;
+            this.writeStarted = writeStarted;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain chain) throws ServletException, IOException {
+            if (!request.getRequestURI().startsWith("/stalled/")) {
+                chain.doFilter(request, response);
+                return;
+            }
+            ServletOutputStream out = response.getOutputStream();
+            chain.doFilter(request, new HttpServletResponseWrapper(response) {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return new DelegatingServletOutputStream(out) {
+                        @Override
+                        public void write(byte[] b, int off, int len) throws IOException {
+                            block();
+                            super.write(b, off, len);
+                        }
+
+                        @Override
+                        public void write(int b) throws IOException {
+                            block();
+                            super.write(b);
+                        }
+                    };
+                }
+            });
+        }
+
+        private void block() {
+            writeStarted.countDown();
+            try {
+                stall.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Drives transaction synchronization without a database.
+     */
+    static class NoResourceTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.coder.judge;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal local stand-in for the Judge0 REST API: single submissions with wait=true and the
+ * batch create/poll endpoints. Accepts a submission when its source contains the expected
+ * output and counts every HTTP request so round trips can be compared. Batch polls can be
+ * made to fail with {@link #failPolls}.
+ */
+class FakeJudge0Server implements AutoCloseable {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, ObjectNode> results = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failingPolls = new AtomicInteger();
+    private final HttpServer server;
+
+    FakeJudge0Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/submissions", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int requestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Answers the next {@code count} batch polls with 500.
+     */
+    void failPolls(int count) {
+        failingPolls.set(count);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+
+        if ("POST".equals(method) && path.equals("/submissions/batch")) {
+            JsonNode body = mapper.readTree(exchange.getRequestBody());
+            ArrayNode created = mapper.createArrayNode();
+            for (JsonNode submission : body.get("submissions")) {
+                String token = UUID.randomUUID().toString();
+                results.put(token, judge(token, submission));
+                created.addObject().put("token", token);
+            }
+            respond(exchange, 201, created);
+        } else if ("GET".equals(method) && path.equals("/submissions/batch")) {
+            if (failingPolls.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                respond(exchange, 500, mapper.createObjectNode().put("error", "internal error"));
+                return;
+            }
+            ArrayNode submissions = mapper.createArrayNode();
+            for (String token : queryParam(exchange, "tokens").split(",")) {
+                ObjectNode result = results.get(token);
+                submissions.add(result != null ? result : mapper.createObjectNode().putNull("token"));
+            }
+            ObjectNode response = mapper.createObjectNode();
+            response.set("submissions", submissions);
+            respond(exchange, 200, response);
+        } else if ("POST".equals(method) && path.equals("/submissions")) {
+            JsonNode body = mapper.readTree(exchange.getRequestBody());
+            respond(exchange, 201, judge(UUID.randomUUID().toString(), body));
+        } else {
+            respond(exchange, 404, mapper.createObjectNode().put("error", "not found"));
+        }
+    }
+
+    private ObjectNode judge(String token, JsonNode submission) {
+        String source = submission.path("source_code").asText("");
+        String expected = submission.path("expected_output").asText("").trim();
+        boolean accepted = source.contains(expected);
+
+        ObjectNode result = mapper.createObjectNode();
+        result.put("token", token);
+        result.put("stdout", accepted ? expected : "");
+        result.put("time", "0.001");
+        ObjectNode status = result.putObject("status");
+        status.put("id", accepted ? 3 : 4);
+        status.put("description", accepted ? "Accepted" : "Wrong Answer");
+        return result;
+    }
+
+    private String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
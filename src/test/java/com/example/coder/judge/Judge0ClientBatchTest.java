@@ -0,0 +1,120 @@
+package com.example.coder.judge;
+
+import com.example.coder.model.Submission;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Judge0ClientBatchTest {
+
+    private FakeJudge0Server server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeJudge0Server();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void batchIsCreatedAndPolledInTwoRoundTrips() {
+        Judge0Client client = newClient();
+        List<JudgeTask> tasks = tasks(20);
+
+        List<JudgeResult> results = client.executeBatch(tasks);
+
+        assertEquals(2, server.requestCount());
+        assertEquals(20, results.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getSubmissionId(), results.get(i).getSubmissionId());
+            Submission.Status expected = i % 3 == 0 ? Submission.Status.FAIL : Submission.Status.SUCCESS;
+            assertEquals(expected, results.get(i).getStatus());
+        }
+    }
+
+    @Test
+    void failedPollIsRetriedOnTheNextRound() {
+        server.failPolls(1);
+
+        List<JudgeResult> results = newClient().executeBatch(tasks(5));
+
+        assertEquals(3, server.requestCount());
+        for (JudgeResult result : results) {
+            assertNotEquals(Submission.Status.ERROR, result.getStatus());
+            assertNotEquals(Submission.Status.PENDING, result.getStatus());
+        }
+    }
+
+    @Test
+    void batchStillUnresolvedAtTheDeadlineComesBackPending() {
+        server.failPolls(Integer.MAX_VALUE);
+        Judge0Client client = new Judge0Client(server.baseUrl(), "", 2000, 5000, 1, 50);
+
+        List<JudgeResult> results = client.executeBatch(tasks(5));
+
+        assertEquals(5, results.size());
+        for (JudgeResult result : results) {
+            assertEquals(Submission.Status.PENDING, result.getStatus());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void roundTripsAndThroughputByBatchSize() {
+        int total = 200;
+        long singleRoundTrips = 0;
+        long largestBatchRoundTrips = 0;
+
+        for (int batchSize : new int[]{1, 5, 10, 20}) {
+            Judge0Client client = newClient();
+            List<JudgeTask> tasks = tasks(total);
+            int requestsBefore = server.requestCount();
+
+            long start = System.nanoTime();
+            for (int from = 0; from < total; from += batchSize) {
+                List<JudgeTask> batch = tasks.subList(from, Math.min(total, from + batchSize));
+                if (batch.size() == 1) {
+                    client.execute(batch.get(0));
+                } else {
+                    client.executeBatch(batch);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int roundTrips = server.requestCount() - requestsBefore;
+
+            System.out.printf("batch=%d roundTrips=%d throughput=%.0f submissions/s%n",
+                    batchSize, roundTrips, total / seconds);
+            if (batchSize == 1) {
+                singleRoundTrips = roundTrips;
+            }
+            largestBatchRoundTrips = roundTrips;
+        }
+
+        assertTrue(singleRoundTrips >= 5 * largestBatchRoundTrips,
+                "expected at least a 5x cut in round trips, got " + singleRoundTrips + " vs " + largestBatchRoundTrips);
+    }
+
+    private Judge0Client newClient() {
+        return new Judge0Client(server.baseUrl(), "", 2000, 5000, 1, 5000);
+    }
+
+    private List<JudgeTask> tasks(int count) {
+        List<JudgeTask> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String source = i % 3 == 0 ? "print('nope')" : "print('ok')";
+            tasks.add(new JudgeTask((long) i + 1, 71, source, "", "ok"));
+        }
+        return tasks;
+    }
+}
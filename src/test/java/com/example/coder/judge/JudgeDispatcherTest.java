@@ -0,0 +1,119 @@
+package com.example.coder.judge;
+
+import com.example.coder.DTOs.SubmissionUpdateDTO;
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.services.SubmissionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class JudgeDispatcherTest {
+
+    private SubmissionService submissionService;
+    private final SubmissionQueue submissionQueue = mock(SubmissionQueue.class);
+    private JudgeResultSink resultSink;
+    private JudgeDispatcher dispatcher;
+    private final SubmissionMetrics metrics = new SubmissionMetrics(new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        submissionService = mock(SubmissionService.class);
+        resultSink = new JudgeResultSink(submissionService, 10, 20, 100);
+        resultSink.start();
+        dispatcher = new JudgeDispatcher(new FakeJudgeClient(0), resultSink, submissionQueue, metrics, 2, 10, 5, 20, false);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.stop();
+        resultSink.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesVerdictsBackInBatches() {
+        assertTrue(dispatcher.enqueue(new JudgeTask(1L, 71, "print('42')", "", "42")));
+        assertTrue(dispatcher.enqueue(new JudgeTask(2L, 71, "print('41')", "", "42")));
+
+        ArgumentCaptor<Map<Long, SubmissionUpdateDTO>> written = ArgumentCaptor.forClass(Map.class);
+        verify(submissionService, timeout(2000).atLeastOnce()).updateSubmissionResults(written.capture());
+
+        Map<Long, SubmissionUpdateDTO> verdicts = new HashMap<>();
+        written.getAllValues().forEach(verdicts::putAll);
+        assertEquals("SUCCESS", verdicts.get(1L).getStatus());
+        assertEquals("FAIL", verdicts.get(2L).getStatus());
+    }
+
+    @Test
+    void shutdownFlushesBufferedResults() throws InterruptedException {
+        JudgeResultSink slow = new JudgeResultSink(submissionService, 10, 60_000, 100);
+        slow.start();
+        slow.submit(JudgeResult.error(7L, "boom"));
+
+        slow.stop();
+
+        verify(submissionService).updateSubmissionResults(Map.of(7L, JudgeResult.error(7L, "boom").toUpdateDTO()));
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws InterruptedException {
+        dispatcher.stop();
+        JudgeDispatcher stalled = new JudgeDispatcher(new FakeJudgeClient(0), resultSink, mock(SubmissionQueue.class), metrics, 1, 1, 5, 20, false);
+
+        assertTrue(stalled.enqueue(new JudgeTask(1L, 71, "a", "", "a")));
+        assertFalse(stalled.enqueue(new JudgeTask(2L, 71, "b", "", "b")));
+        assertEquals(1, stalled.getQueueDepth());
+    }
+
+    @Test
+    void failedJudgeCallReleasesTheBatchInsteadOfFailingIt() throws InterruptedException {
+        dispatcher.stop();
+        JudgeClient unavailable = task -> {
+            throw new IllegalStateException("Connection refused");
+        };
+        JudgeDispatcher failing = new JudgeDispatcher(unavailable, resultSink, submissionQueue, metrics, 1, 10, 1, 0, false);
+        failing.start();
+        try {
+            assertTrue(failing.enqueue(new JudgeTask(1L, 71, "a", "", "a")));
+
+            verify(submissionQueue, timeout(2000)).release(List.of(1L));
+        } finally {
+            failing.stop();
+        }
+        resultSink.stop();
+        verify(submissionService, never()).updateSubmissionResults(any());
+    }
+
+    @Test
+    void shutdownReleasesSubmissionsBeingJudged() throws InterruptedException {
+        dispatcher.stop();
+        JudgeDispatcher slow = new JudgeDispatcher(new FakeJudgeClient(60_000), resultSink, submissionQueue, metrics, 1, 10, 1, 0, false);
+        slow.start();
+        assertTrue(slow.enqueue(new JudgeTask(1L, 71, "a", "", "a")));
+        while (slow.getQueueDepth() > 0) {
+            Thread.sleep(10);
+        }
+
+        slow.stop();
+
+        verify(submissionQueue, timeout(2000)).release(List.of(1L));
+        resultSink.stop();
+        verify(submissionService, never()).updateSubmissionResults(any());
+    }
+}
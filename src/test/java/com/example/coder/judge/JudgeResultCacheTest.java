@@ -0,0 +1,104 @@
+package com.example.coder.judge;
+
+import com.example.coder.config.CacheConfig;
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.repo.JudgeResultCacheRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class JudgeResultCacheTest {
+
+    private final JudgeResultCacheRepo repo = mock(JudgeResultCacheRepo.class);
+    private final JudgeResultCache cache = new JudgeResultCache(repo,
+            new SubmissionMetrics(new SimpleMeterRegistry()),
+            new ConcurrentMapCacheManager(CacheConfig.JUDGE_RESULTS), true, 30);
+
+    @Test
+    void lineEndingOnlyChangesShareAKey() {
+        Exercises exercise = exercise(0);
+        Languages language = language(71);
+
+        String unix = "def f():\n    return 1\n";
+        String windows = "\uFEFFdef f():\r\n    return 1\r\n\r\n";
+
+        assertEquals(cache.keyFor(exercise, language, unix), cache.keyFor(exercise, language, windows));
+        assertNotEquals(cache.keyFor(exercise, language, unix),
+                cache.keyFor(exercise, language, "def f():\nreturn 1\n"));
+    }
+
+    @Test
+    void trailingSpacesInsideAStringLiteralChangeTheKey() {
+        Exercises exercise = exercise(0);
+        Languages language = language(71);
+
+        assertNotEquals(cache.keyFor(exercise, language, "print('''a\nb''')"),
+                cache.keyFor(exercise, language, "print('''a   \nb''')"));
+    }
+
+    @Test
+    void changedTestsChangeTheKey() {
+        String source = "print(1)";
+        Languages language = language(71);
+
+        assertNotEquals(cache.keyFor(exercise(0), language, source), cache.keyFor(exercise(1), language, source));
+        assertNotEquals(cache.keyFor(exercise(0), language, source), cache.keyFor(exercise(0), language(62), source));
+    }
+
+    @Test
+    void storedResultIsServedFromMemory() {
+        Submission judged = judged(Submission.Status.SUCCESS);
+
+        cache.store(judged);
+
+        JudgeResultCache.CachedResult cached = cache.lookup(judged.getResultKey()).orElseThrow();
+        assertEquals(Submission.Status.SUCCESS, cached.status());
+        assertEquals("1", cached.stdout());
+        verify(repo).insertIfAbsent(judged.getResultKey(), "SUCCESS", "1", null, null, 0.01);
+        verify(repo, never()).findById(anyString());
+    }
+
+    @Test
+    void errorsAreNotStored() {
+        Submission judged = judged(Submission.Status.ERROR);
+
+        cache.store(judged);
+
+        assertTrue(cache.lookup(judged.getResultKey()).isEmpty());
+        verify(repo, never()).insertIfAbsent(anyString(), anyString(), any(), any(), any(), any());
+    }
+
+    private Submission judged(Submission.Status status) {
+        Submission submission = new Submission();
+        submission.setResultKey(cache.keyFor(exercise(0), language(71), "print(1)"));
+        submission.setStatus(status);
+        submission.setStdout("1");
+        submission.setTime(0.01);
+        return submission;
+    }
+
+    private static Exercises exercise(int testVersion) {
+        Exercises exercise = new Exercises();
+        exercise.setId(3L);
+        exercise.setTestVersion(testVersion);
+        return exercise;
+    }
+
+    private static Languages language(int code) {
+        Languages language = new Languages();
+        language.setCode(code);
+        return language;
+    }
+}
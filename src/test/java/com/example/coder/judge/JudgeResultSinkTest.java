@@ -0,0 +1,102 @@
+package com.example.coder.judge;
+
+import com.example.coder.config.CacheConfig;
+import com.example.coder.metrics.SubmissionMetrics;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Submission;
+import com.example.coder.model.Users;
+import com.example.coder.repo.JudgeResultCacheRepo;
+import com.example.coder.repo.SubmissionRepo;
+import com.example.coder.services.imp.SubmissionServiceImpl;
+import com.example.coder.stats.SubmissionStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Writes verdicts through the real service, so the result cache is checked on both the
+ * batch path and the one-by-one retry.
+ */
+class JudgeResultSinkTest {
+
+    private final JudgeResultCacheRepo cacheRepo = mock(JudgeResultCacheRepo.class);
+    private final SubmissionRepo submissionRepo = mock(SubmissionRepo.class);
+    private final SubmissionQueue submissionQueue = mock(SubmissionQueue.class);
+    private final SubmissionStats submissionStats = mock(SubmissionStats.class);
+    private final SubmissionMetrics metrics = new SubmissionMetrics(new SimpleMeterRegistry());
+    private final JudgeResultCache resultCache = new JudgeResultCache(cacheRepo, metrics,
+            new ConcurrentMapCacheManager(CacheConfig.JUDGE_RESULTS), true, 30);
+    private final Map<Long, Submission> submissions = Map.of(1L, submission(1L), 2L, submission(2L));
+
+    @Test
+    void batchedVerdictsAreStoredInTheResultCache() throws InterruptedException {
+        write();
+
+        assertCached();
+        verify(cacheRepo, times(2)).insertIfAbsent(anyString(), anyString(), any(), any(), any(), any());
+    }
+
+    @Test
+    void verdictsRetriedOneByOneAreStoredInTheResultCache() throws InterruptedException {
+        doThrow(new CannotAcquireLockException("deadlock"))
+                .when(submissionStats).recordStatusChanges(argThat(changes -> changes.size() > 1));
+
+        write();
+
+        assertCached();
+        verify(cacheRepo, times(2)).insertIfAbsent(anyString(), anyString(), any(), any(), any(), any());
+    }
+
+    private void write() throws InterruptedException {
+        when(submissionQueue.lockHeld(anyCollection())).thenAnswer(call -> List.copyOf(call.<Collection<Long>>getArgument(0)));
+        when(submissionRepo.findDetailsByIdIn(anyCollection())).thenAnswer(call -> call.<Collection<Long>>getArgument(0)
+                .stream().map(submissions::get).toList());
+        SubmissionServiceImpl service = new SubmissionServiceImpl(submissionRepo, null, null, null, null, null, null,
+                submissionStats, metrics, resultCache, submissionQueue, mock(ApplicationEventPublisher.class));
+
+        // Flushed as one batch on stop
+        JudgeResultSink sink = new JudgeResultSink(service, 10, 60_000, 100);
+        sink.start();
+        sink.submit(new JudgeResult(1L, Submission.Status.SUCCESS, "42", null, null, 0.01));
+        sink.submit(new JudgeResult(2L, Submission.Status.FAIL, "41", null, null, 0.02));
+        sink.stop();
+    }
+
+    private void assertCached() {
+        assertEquals(Submission.Status.SUCCESS, resultCache.lookup("key-1").orElseThrow().status());
+        assertEquals(Submission.Status.FAIL, resultCache.lookup("key-2").orElseThrow().status());
+        verify(cacheRepo, never()).findById(anyString());
+    }
+
+    private static Submission submission(Long id) {
+        Users user = new Users();
+        user.setId(7L);
+        Exercises exercise = new Exercises();
+        exercise.setId(3L);
+        Submission submission = new Submission();
+        submission.setId(id);
+        submission.setUser(user);
+        submission.setExercise(exercise);
+        submission.setStatus(Submission.Status.PENDING);
+        submission.setResultKey("key-" + id);
+        return submission;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.coder.judge;
+
+import com.example.coder.EmbeddedMariaDB;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.model.Users;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.repo.LanguagesRepo;
+import com.example.coder.repo.SubmissionRepo;
+import com.example.coder.repo.UsersRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the claim and lease queries against MariaDB, since they rely on SKIP LOCKED and the
+ * database clock. Each step runs in its own transaction, like the dispatcher's calls do.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubmissionQueueTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDB.register(registry, "submission_queue_test");
+    }
+
+    @Autowired
+    private SubmissionRepo submissionRepo;
+    @Autowired
+    private UsersRepo usersRepo;
+    @Autowired
+    private ExercisesRepo exercisesRepo;
+    @Autowired
+    private LanguagesRepo languagesRepo;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private SubmissionQueue nodeA;
+    private SubmissionQueue nodeB;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        nodeA = new SubmissionQueue(submissionRepo, "node-a", 60);
+        nodeB = new SubmissionQueue(submissionRepo, "node-b", 60);
+        jdbc.update("DELETE FROM submissions");
+    }
+
+    @Test
+    void concurrentClaimsSkipRowsLockedByAnotherNode() throws Exception {
+        List<Long> ids = pending(4);
+        CountDownLatch claimedByA = new CountDownLatch(1);
+        CountDownLatch commitA = new CountDownLatch(1);
+
+        CompletableFuture<List<JudgeTask>> first = CompletableFuture.supplyAsync(() -> inTransaction(() -> {
+            List<JudgeTask> tasks = nodeA.claimBatch(2);
+            claimedByA.countDown();
+            await(commitA);
+            return tasks;
+        }));
+        assertTrue(claimedByA.await(10, TimeUnit.SECONDS));
+
+        // Node A's rows are still locked and uncommitted; node B must skip rather than wait
+        List<JudgeTask> second = inTransaction(() -> nodeB.claimBatch(10));
+        commitA.countDown();
+        List<JudgeTask> firstTasks = first.get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, firstTasks.size());
+        assertEquals(2, second.size());
+        Set<Long> claimed = new HashSet<>(submissionIds(firstTasks));
+        claimed.addAll(submissionIds(second));
+        assertEquals(new HashSet<>(ids), claimed);
+
+        assertTrue(inTransaction(() -> nodeB.claimBatch(10)).isEmpty());
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndOnlyTheNewHolderMayWrite() {
+        Long id = pending(1).get(0);
+
+        assertEquals(List.of(id), submissionIds(inTransaction(() -> nodeA.claimBatch(10))));
+        assertTrue(inTransaction(() -> nodeB.claimBatch(10)).isEmpty());
+        assertFalse(inTransaction(() -> nodeB.claim(id)));
+
+        expireLeases();
+        assertEquals(List.of(id), inTransaction(() -> nodeA.lockHeld(List.of(id))));
+
+        assertEquals(List.of(id), submissionIds(inTransaction(() -> nodeB.claimBatch(10))));
+        assertTrue(inTransaction(() -> nodeA.lockHeld(List.of(id))).isEmpty());
+        assertEquals(List.of(id), inTransaction(() -> nodeB.lockHeld(List.of(id))));
+    }
+
+    @Test
+    void renewedLeaseBlocksClaimsUntilReleased() {
+        Long id = pending(1).get(0);
+        assertTrue(inTransaction(() -> nodeA.claim(id)));
+
+        expireLeases();
+        inTransaction(() -> {
+            nodeA.renew(List.of(id));
+            return null;
+        });
+        assertFalse(inTransaction(() -> nodeB.claim(id)));
+
+        inTransaction(() -> {
+            nodeA.release(List.of(id));
+            return null;
+        });
+        assertTrue(inTransaction(() -> nodeB.claim(id)));
+    }
+
+    @Test
+    void decidedSubmissionsAreNeitherClaimedNorHeld() {
+        Long id = pending(1).get(0);
+        assertTrue(inTransaction(() -> nodeA.claim(id)));
+
+        jdbc.update("UPDATE submissions SET status = 'SUCCESS' WHERE id = ?", id);
+
+        assertTrue(inTransaction(() -> nodeA.lockHeld(List.of(id))).isEmpty());
+        expireLeases();
+        assertTrue(inTransaction(() -> nodeB.claimBatch(10)).isEmpty());
+    }
+
+    private List<Long> pending(int count) {
+        return inTransaction(() -> {
+            Users user = new Users();
+            user.setUsername("queue-user-" + System.nanoTime());
+            user.setPassword("secret");
+            user = usersRepo.save(user);
+
+            Exercises exercise = new Exercises();
+            exercise.setTitle("Echo");
+            exercise.setDescription("Print the input");
+            exercise.setSampleInput("1");
+            exercise.setSampleOutput("1");
+            exercise = exercisesRepo.save(exercise);
+
+            Languages language = new Languages();
+            language.setName("Python");
+            language.setCode(71);
+            language = languagesRepo.save(language);
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Submission submission = new Submission();
+                submission.setUser(user);
+                submission.setExercise(exercise);
+                submission.setLanguage(language);
+                submission.setSourceCode("print(" + i + ")");
+                ids.add(submissionRepo.save(submission).getId());
+            }
+            return ids;
+        });
+    }
+
+    private void expireLeases() {
+        jdbc.update("UPDATE submissions SET lease_until = NOW() - INTERVAL 1 SECOND WHERE lease_until IS NOT NULL");
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transaction.execute(status -> work.get());
+    }
+
+    private static List<Long> submissionIds(List<JudgeTask> tasks) {
+        return tasks.stream().map(JudgeTask::getSubmissionId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
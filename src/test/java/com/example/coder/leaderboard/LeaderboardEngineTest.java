@@ -0,0 +1,181 @@
+package com.example.coder.leaderboard;
+
+import com.example.coder.DTOs.SubmissionStatusDTO;
+import com.example.coder.events.SubmissionDeletedEvent;
+import com.example.coder.events.SubmissionStatusEvent;
+import com.example.coder.model.Submission;
+import com.example.coder.repo.SubmissionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaderboardEngineTest {
+
+    private SubmissionRepo submissionRepo;
+    private LeaderboardEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        submissionRepo = mock(SubmissionRepo.class);
+        when(submissionRepo.findBestTimes(Submission.Status.SUCCESS)).thenReturn(List.of(
+                bestTime(1L, 10L, 0.5),
+                bestTime(2L, 10L, 0.2),
+                bestTime(2L, 11L, 1.0),
+                bestTime(3L, 11L, null)
+        ));
+        engine = new LeaderboardEngine(submissionRepo);
+        engine.rebuild();
+    }
+
+    @Test
+    void buildsExerciseAndGlobalBoardsFromBestTimes() {
+        assertEquals(List.of(2L, 1L), userIds(engine.top(10L, 10)));
+        // A solve without a reported time ranks behind every timed solve
+        assertEquals(List.of(2L, 3L), userIds(engine.top(11L, 10)));
+        assertEquals(List.of(2L, 3L, 1L), userIds(engine.top(null, 10)));
+        assertEquals(2, engine.rankOf(null, 3L).orElseThrow().getRank());
+        assertTrue(engine.rankOf(12L, 1L).isEmpty());
+    }
+
+    @Test
+    void successesUpdateBothBoardsIncrementally() {
+        engine.recordSuccess(1L, 11L, 0.3);
+
+        RankedStanding exercise = engine.rankOf(11L, 1L).orElseThrow();
+        RankedStanding global = engine.rankOf(null, 1L).orElseThrow();
+        assertEquals(1, exercise.getRank());
+        assertEquals(1, global.getRank());
+        assertEquals(2, global.getStanding().getSolved());
+        assertEquals(0.8, global.getStanding().getTime(), 1e-9);
+
+        // Slower re-submissions are ignored, faster ones replace the best time
+        engine.recordSuccess(1L, 11L, 0.9);
+        assertEquals(0.3, engine.rankOf(11L, 1L).orElseThrow().getStanding().getTime(), 1e-9);
+        engine.recordSuccess(2L, 10L, 0.1);
+        assertEquals(1.1, engine.rankOf(null, 2L).orElseThrow().getStanding().getTime(), 1e-9);
+        assertEquals(2, engine.rankOf(null, 2L).orElseThrow().getStanding().getSolved());
+        assertEquals(3, engine.size(null));
+    }
+
+    @Test
+    void rejudgedSolveFallsBackToTheNextBestTime() {
+        when(submissionRepo.findBestTime(2L, 10L, Submission.Status.SUCCESS))
+                .thenReturn(Optional.of(bestTime(2L, 10L, 0.7)));
+
+        engine.onStatusChanged(status(2L, 10L, Submission.Status.FAIL));
+
+        assertEquals(List.of(1L, 2L), userIds(engine.top(10L, 10)));
+        RankedStanding global = engine.rankOf(null, 2L).orElseThrow();
+        assertEquals(2, global.getStanding().getSolved());
+        assertEquals(1.7, global.getStanding().getTime(), 1e-9);
+    }
+
+    @Test
+    void deletingTheOnlySolveRemovesTheUserFromBothBoards() {
+        when(submissionRepo.findBestTime(1L, 10L, Submission.Status.SUCCESS)).thenReturn(Optional.empty());
+
+        engine.onSubmissionDeleted(new SubmissionDeletedEvent(100L, 1L, 10L));
+
+        assertEquals(List.of(2L), userIds(engine.top(10L, 10)));
+        assertTrue(engine.rankOf(null, 1L).isEmpty());
+        assertEquals(2, engine.size(null));
+    }
+
+    @Test
+    void failuresOfUsersNotOnTheBoardCostNoQuery() {
+        engine.onStatusChanged(status(1L, 11L, Submission.Status.FAIL));
+        engine.onStatusChanged(status(9L, 10L, Submission.Status.PENDING));
+
+        verify(submissionRepo, never()).findBestTime(any(), any(), any());
+    }
+
+    @Test
+    void overlappingRebuildIsSkippedAndKeepsChangesMadeDuringTheRunningOne() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finishLoading = new CountDownLatch(1);
+        when(submissionRepo.findBestTimes(Submission.Status.SUCCESS)).thenAnswer(invocation -> {
+            loading.countDown();
+            finishLoading.await(10, TimeUnit.SECONDS);
+            return List.of(bestTime(1L, 10L, 0.5));
+        });
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(engine::rebuild);
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        engine.rebuild();
+        engine.recordSuccess(4L, 10L, 0.1);
+        finishLoading.countDown();
+        running.get(10, TimeUnit.SECONDS);
+
+        // Once by setUp and once by the running rebuild; the overlapping call never loaded
+        verify(submissionRepo, times(2)).findBestTimes(Submission.Status.SUCCESS);
+        assertEquals(List.of(4L, 1L), userIds(engine.top(10L, 10)));
+    }
+
+    @Test
+    void rankedTreeMatchesSortedList() {
+        RankedTree<Integer> tree = new RankedTree<>(Integer::compare);
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(500);
+            if (expected.contains(value)) {
+                tree.remove(value);
+                expected.remove(Integer.valueOf(value));
+            } else {
+                tree.add(value);
+                expected.add(value);
+            }
+        }
+        expected.sort(Integer::compare);
+
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected.subList(0, 25), tree.first(25));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, tree.indexOf(expected.get(i)));
+        }
+        assertEquals(-1, tree.indexOf(-1));
+    }
+
+    private static List<Long> userIds(List<RankedStanding> ranked) {
+        return ranked.stream().map(r -> r.getStanding().getUserId()).toList();
+    }
+
+    private static SubmissionStatusEvent status(Long userId, Long exerciseId, Submission.Status status) {
+        return new SubmissionStatusEvent(new SubmissionStatusDTO(100L, userId, exerciseId, status, null));
+    }
+
+    private static SubmissionRepo.BestTimeView bestTime(Long userId, Long exerciseId, Double time) {
+        return new SubmissionRepo.BestTimeView() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getExerciseId() {
+                return exerciseId;
+            }
+
+            @Override
+            public Double getBestTime() {
+                return time;
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.coder.metrics;
+
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SubmissionMetrics metrics = new SubmissionMetrics(registry);
+
+    @Test
+    void verdictRecordsPendingTimeAndCount() {
+        metrics.recordVerdict(pendingSubmission(71, 5), Submission.Status.SUCCESS);
+
+        assertEquals(1.0, registry.get(SubmissionMetrics.VERDICTS)
+                .tags("status", "SUCCESS", "language", "71").counter().count());
+        Timer pending = registry.get(SubmissionMetrics.PENDING).tags("language", "71").timer();
+        assertEquals(1, pending.count());
+        assertTrue(pending.totalTime(TimeUnit.SECONDS) >= 5);
+    }
+
+    @Test
+    void verdictInsideTransactionCountsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            metrics.recordVerdict(pendingSubmission(62, 1), Submission.Status.FAIL);
+            assertNull(registry.find(SubmissionMetrics.VERDICTS).counter());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNotNull(registry.find(SubmissionMetrics.VERDICTS).tags("status", "FAIL").counter());
+    }
+
+    @Test
+    void unchangedStatusIsNotCounted() {
+        Submission submission = pendingSubmission(71, 1);
+        submission.setStatus(Submission.Status.SUCCESS);
+
+        metrics.recordVerdict(submission, Submission.Status.SUCCESS);
+
+        assertNull(registry.find(SubmissionMetrics.VERDICTS).counter());
+    }
+
+    private static Submission pendingSubmission(int languageCode, int secondsAgo) {
+        Languages language = new Languages();
+        language.setCode(languageCode);
+        Submission submission = new Submission();
+        submission.setLanguage(language);
+        submission.setStatus(Submission.Status.PENDING);
+        submission.setCreatedAt(LocalDateTime.now().minusSeconds(secondsAgo));
+        return submission;
+    }
+}
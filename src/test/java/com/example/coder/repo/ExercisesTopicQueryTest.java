@@ -0,0 +1,71 @@
+package com.example.coder.repo;
+
+import com.example.coder.DTOs.TopicCountDTO;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Topic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ExercisesTopicQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExercisesRepo exercisesRepo;
+
+    @Autowired
+    private TopicRepo topicRepo;
+
+    private Topic graph;
+    private Topic graphql;
+
+    @BeforeEach
+    void setUp() {
+        graph = entityManager.persist(new Topic(null, "Graph", "graph", 0));
+        graphql = entityManager.persist(new Topic(null, "Graphql", "graphql", 0));
+
+        exercise("Shortest path", Exercises.Difficulty.HARD, graph);
+        exercise("Connected components", Exercises.Difficulty.MEDIUM, graph);
+        exercise("Schema design", Exercises.Difficulty.EASY, graphql);
+        entityManager.flush();
+
+        topicRepo.refreshExerciseCounts(List.of(graph.getId(), graphql.getId()));
+        entityManager.clear();
+    }
+
+    @Test
+    void topicQueriesMatchWholeTopicsOnly() {
+        assertEquals(2, exercisesRepo.findByTopicSlug("graph").size());
+        assertEquals(1, exercisesRepo.findByTopicSlugAndDifficulty("graph", Exercises.Difficulty.HARD).size());
+        assertEquals(1, exercisesRepo.findByTopicSlug("graphql").size());
+    }
+
+    @Test
+    void topicCountsComeFromTheTopicsTable() {
+        List<TopicCountDTO> counts = topicRepo.findTopicCounts();
+
+        assertEquals(List.of(new TopicCountDTO("Graph", 2), new TopicCountDTO("Graphql", 1)), counts);
+        assertEquals(List.of("Graph", "Graphql"), topicRepo.findNamesInUse());
+    }
+
+    private void exercise(String title, Exercises.Difficulty difficulty, Topic topic) {
+        Exercises exercise = new Exercises();
+        exercise.setTitle(title);
+        exercise.setDescription(title);
+        exercise.setDifficulty(difficulty);
+        exercise.setTopics(topic.getName());
+        exercise.setTopicSet(new HashSet<>(Set.of(topic)));
+        entityManager.persist(exercise);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.coder.repo;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk inserts with IDENTITY ids (one statement per row, batching disabled) against pooled
+ * sequence ids (JDBC batches of {@code batch_size}). Opt-in:
+ * {@code mvn test -Dbenchmark=true -Dtest=IdStrategyBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class IdStrategyBenchmarkTest {
+
+    private static final int CHUNK = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 50_000})
+    void identityVersusPooledSequence(int rows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long[] identity = insert(rows, statistics, IdentityRow::new);
+        long[] sequence = insert(rows, statistics, SequenceRow::new);
+
+        System.out.printf("rows=%d identity=%dms/%d statements sequence=%dms/%d statements%n",
+                rows, identity[0], identity[1], sequence[0], sequence[1]);
+        assertTrue(sequence[1] < identity[1] / 10);
+    }
+
+    // Returns elapsed ms and prepared statements
+    private long[] insert(int rows, Statistics statistics, Function<String, Object> row) {
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            entityManager.persist(row.apply("row-" + i));
+            if ((i + 1) % CHUNK == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return new long[]{(System.nanoTime() - start) / 1_000_000, statistics.getPrepareStatementCount()};
+    }
+
+    @Entity
+    @Table(name = "bench_identity_rows")
+    static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private String name;
+
+        protected IdentityRow() {
+        }
+
+        IdentityRow(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    @Table(name = "bench_sequence_rows")
+    static class SequenceRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_sequence_rows_seq")
+        @SequenceGenerator(name = "bench_sequence_rows_seq", sequenceName = "bench_sequence_rows_seq", allocationSize = 50)
+        private Long id;
+        private String name;
+
+        protected SequenceRow() {
+        }
+
+        SequenceRow(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.coder.repo;
+
+import com.example.coder.DTOs.SubmissionResponseDTO;
+import com.example.coder.DTOs.SubmissionSummaryDTO;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.model.Users;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SubmissionRepoProjectionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SubmissionRepo submissionRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Users user;
+    private Exercises exercise;
+
+    @BeforeEach
+    void setUp() {
+        user = new Users();
+        user.setUsername("alice");
+        user.setPassword("secret");
+        user.setEmail("alice@example.com");
+        entityManager.persist(user);
+
+        exercise = new Exercises();
+        exercise.setTitle("Two Sum");
+        exercise.setDescription("Add two numbers");
+        exercise.setDifficulty(Exercises.Difficulty.EASY);
+        entityManager.persist(exercise);
+
+        Languages language = new Languages();
+        language.setName("Python");
+        language.setCode(71);
+        entityManager.persist(language);
+
+        for (int i = 0; i < 30; i++) {
+            Submission submission = new Submission();
+            submission.setUser(user);
+            submission.setExercise(exercise);
+            submission.setLanguage(language);
+            submission.setSourceCode("print(" + i + ")");
+            submission.setStdout(String.valueOf(i));
+            entityManager.persist(submission);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void userPageCostsOneSelectAndOneCount() {
+        Statistics statistics = statistics();
+
+        Page<SubmissionSummaryDTO> page = submissionRepo.findSummariesByUserId(user.getId(), PageRequest.of(1, 10));
+        page.forEach(dto -> {
+            assertEquals("alice", dto.getUsername());
+            assertEquals("Two Sum", dto.getExerciseTitle());
+            assertEquals("Python", dto.getLanguageName());
+            // A summary carries no payload, so widening it leaves the payload fields unset
+            SubmissionResponseDTO full = new SubmissionResponseDTO(dto);
+            assertNull(full.getSourceCode());
+            assertNull(full.getStdout());
+        });
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(30, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void exerciseListIsASingleStatementRegardlessOfSize() {
+        Statistics statistics = statistics();
+
+        List<SubmissionSummaryDTO> submissions = submissionRepo.findSummariesByExerciseId(exercise.getId());
+        submissions.forEach(dto -> assertNotNull(dto.getUsername()));
+
+        assertEquals(30, submissions.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void payloadsForAPageComeFromOneExtraStatement() {
+        Statistics statistics = statistics();
+
+        List<SubmissionSummaryDTO> submissions = submissionRepo.findSummariesByUserId(user.getId());
+        List<SubmissionRepo.PayloadView> payloads = submissionRepo.findPayloadsByIdIn(
+                submissions.stream().map(SubmissionSummaryDTO::getId).toList());
+
+        assertEquals(30, payloads.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keysetPagesCoverEveryRowOnceWithoutCounting() {
+        Statistics statistics = statistics();
+        Set<Long> seen = new HashSet<>();
+
+        List<SubmissionSummaryDTO> page = submissionRepo.findSummariesByUserIdFirstKeyset(user.getId(), PageRequest.of(0, 7));
+        int queries = 1;
+        while (!page.isEmpty()) {
+            page.forEach(dto -> assertTrue(seen.add(dto.getId())));
+            SubmissionSummaryDTO last = page.get(page.size() - 1);
+            page = submissionRepo.findSummariesByUserIdBeforeKeyset(
+                    user.getId(), LocalDateTime.parse(last.getCreatedAt()), last.getId(), PageRequest.of(0, 7));
+            queries++;
+        }
+
+        assertEquals(30, seen.size());
+        assertEquals(queries, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.coder.search;
+
+import com.example.coder.repo.ExercisesRepo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the search index against the LIKE queries it replaces. Opt-in because seeding
+ * 100k rows takes a while: {@code mvn test -Dbenchmark=true -Dtest=ExerciseSearchBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ExerciseSearchBenchmarkTest {
+
+    private static final String[] WORDS = {
+            "array", "graph", "tree", "string", "sum", "path", "matrix", "search", "sort", "prime",
+            "queue", "stack", "heap", "window", "interval", "bit", "dynamic", "greedy", "hash", "number"
+    };
+    private static final String[] KEYWORDS = {"graph", "sum", "matrix path", "prime", "window"};
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ExercisesRepo exercisesRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000})
+    void indexVersusLikeQueries(int exercises) {
+        seed(exercises);
+        ExerciseSearchIndex index = new ExerciseSearchIndex(exercisesRepo);
+
+        long buildStart = System.nanoTime();
+        index.rebuild();
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+        entityManager.clear();
+        assertEquals(exercises, index.size());
+
+        long likeNanos = 0;
+        long indexNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String keyword : KEYWORDS) {
+                long start = System.nanoTime();
+                exercisesRepo.findByTitleOrTopicsContaining(keyword);
+                likeNanos += System.nanoTime() - start;
+                entityManager.clear();
+
+                start = System.nanoTime();
+                index.search(SearchQuery.builder().text(keyword).prefix(true).build(), 0, 20);
+                indexNanos += System.nanoTime() - start;
+            }
+        }
+
+        int queries = ROUNDS * KEYWORDS.length;
+        System.out.printf("exercises=%d build=%dms like=%.2fms/query index=%.3fms/query%n",
+                exercises, buildMs,
+                likeNanos / 1e6 / queries,
+                indexNanos / 1e6 / queries);
+    }
+
+    private void seed(int count) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < count; i++) {
+            String title = word(random) + " " + word(random) + " " + i;
+            String topics = word(random) + ", " + word(random);
+            String description = word(random) + " " + word(random) + " " + word(random) + " " + word(random);
+            rows.add(new Object[]{title, description, "EASY", topics, createdAt});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO exercises (title, description, difficulty, topics, created_at) VALUES (?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
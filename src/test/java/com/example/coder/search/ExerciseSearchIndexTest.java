@@ -0,0 +1,124 @@
+package com.example.coder.search;
+
+import com.example.coder.model.Exercises;
+import com.example.coder.repo.ExercisesRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExerciseSearchIndexTest {
+
+    private ExercisesRepo exercisesRepo;
+    private ExerciseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        exercisesRepo = mock(ExercisesRepo.class);
+        when(exercisesRepo.findAll()).thenReturn(List.of(
+                exercise(1L, "Two Sum", "Array, Hash table", "Find two numbers that add up", Exercises.Difficulty.EASY),
+                exercise(2L, "Binary Search", "Array, Binary search", "Search a sorted array", Exercises.Difficulty.EASY),
+                exercise(3L, "Đồ thị ngắn nhất", "Graph", "Tìm đường đi ngắn nhất", Exercises.Difficulty.HARD),
+                exercise(4L, "Sorting", "Array", "Sort numbers, then binary search them", Exercises.Difficulty.MEDIUM)
+        ));
+        index = new ExerciseSearchIndex(exercisesRepo);
+        index.rebuild();
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        List<Long> ids = index.search(SearchQuery.builder().text("binary search").build());
+
+        assertEquals(List.of(2L, 4L), ids);
+    }
+
+    @Test
+    void prefixQueryMatchesWordStartsAndIgnoresAccents() {
+        assertEquals(List.of(2L), index.search(SearchQuery.builder()
+                .text("bin")
+                .fields(EnumSet.of(ExerciseSearchIndex.Field.TITLE))
+                .prefix(true)
+                .build()));
+        assertEquals(List.of(3L), index.search(SearchQuery.builder().text("do thi").build()));
+        assertTrue(index.search(SearchQuery.builder().text("bin").build()).isEmpty());
+    }
+
+    @Test
+    void filtersByDifficultyAndPages() {
+        SearchQuery query = SearchQuery.builder().text("array").difficulty(Exercises.Difficulty.EASY).build();
+
+        Page<Long> first = index.search(query, 0, 1);
+        Page<Long> second = index.search(query, 1, 1);
+
+        assertEquals(2, first.getTotalElements());
+        assertEquals(1, first.getContent().size());
+        assertEquals(1, second.getContent().size());
+        assertTrue(!first.getContent().equals(second.getContent()));
+    }
+
+    @Test
+    void updatesAndDeletesAreVisibleImmediately() {
+        index.index(exercise(1L, "Three Sum", "Array", "Find three numbers", Exercises.Difficulty.MEDIUM));
+        index.remove(2L);
+
+        assertTrue(index.search(SearchQuery.builder().text("two").build()).isEmpty());
+        assertEquals(List.of(1L), index.search(SearchQuery.builder().text("three").build()));
+        assertEquals(List.of(4L), index.search(SearchQuery.builder().text("binary").build()));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void suggestsTitlesForTypeahead() {
+        List<ExerciseSuggestion> suggestions = index.suggest("so", 5);
+
+        assertEquals(1, suggestions.size());
+        assertEquals("Sorting", suggestions.get(0).getTitle());
+    }
+
+    @Test
+    void overlappingRebuildIsSkippedAndKeepsChangesMadeDuringTheRunningOne() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch finishLoading = new CountDownLatch(1);
+        when(exercisesRepo.findAll()).thenAnswer(invocation -> {
+            loading.countDown();
+            finishLoading.await(10, TimeUnit.SECONDS);
+            return List.of(exercise(1L, "Two Sum", "Array", "Find two numbers", Exercises.Difficulty.EASY));
+        });
+
+        CompletableFuture<Void> running = CompletableFuture.runAsync(index::rebuild);
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        index.rebuild();
+        index.index(exercise(5L, "Graph Coloring", "Graph", "Color the nodes", Exercises.Difficulty.HARD));
+        finishLoading.countDown();
+        running.get(10, TimeUnit.SECONDS);
+
+        // Once by setUp and once by the running rebuild; the overlapping call never loaded
+        verify(exercisesRepo, times(2)).findAll();
+        assertEquals(List.of(5L), index.search(SearchQuery.builder().text("coloring").build()));
+        assertEquals(2, index.size());
+    }
+
+    static Exercises exercise(Long id, String title, String topics, String description, Exercises.Difficulty difficulty) {
+        Exercises exercise = new Exercises();
+        exercise.setId(id);
+        exercise.setTitle(title);
+        exercise.setTopics(topics);
+        exercise.setDescription(description);
+        exercise.setDifficulty(difficulty);
+        exercise.setCreatedAt(LocalDateTime.now().minusDays(id));
+        return exercise;
+    }
+}
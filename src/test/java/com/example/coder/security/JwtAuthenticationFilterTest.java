@@ -0,0 +1,163 @@
+package com.example.coder.security;
+
+import com.example.coder.config.CacheConfig;
+import com.example.coder.model.Users;
+import com.example.coder.repo.UsersRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class JwtAuthenticationFilterTest {
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private JwtUtil jwtUtil;
+    private PrincipalCache principalCache;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil("mySecretKey123456789012345678901234567890123", "k1", "", 60_000L);
+
+        UserDetailsService userDetailsService = username -> {
+            lookups.incrementAndGet();
+            return User.withUsername(username).password("{noop}secret").roles("USER").build();
+        };
+        principalCache = new PrincipalCache(userDetailsService,
+                new CacheConfig().cacheManager(100, 300, 100, 60, 1_000_000, 30));
+        token = jwtUtil.generateToken(User.withUsername("alice").password("x").roles("USER").build());
+        tokenVersionRegistry = new TokenVersionRegistry(mock(UsersRepo.class), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedRequestsLoadThePrincipalOnce() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, principalCache, tokenVersionRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            Authentication authentication = authenticate(filter, token);
+            assertNotNull(authentication);
+            assertEquals("alice", ((UserDetails) authentication.getPrincipal()).getUsername());
+            assertEquals("", ((UserDetails) authentication.getPrincipal()).getPassword());
+        }
+        assertEquals(1, lookups.get());
+
+        principalCache.evict("alice");
+        authenticate(filter, token);
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void principalLoadedBeforeAnEvictionIsNotCached() {
+        PrincipalCache[] cache = new PrincipalCache[1];
+        cache[0] = new PrincipalCache(username -> {
+            lookups.incrementAndGet();
+            UserDetails stale = User.withUsername(username).password("x").roles("ADMIN").build();
+            // The demotion commits and evicts after the row was read
+            cache[0].evict(username);
+            return stale;
+        }, new CacheConfig().cacheManager(100, 300, 100, 60, 1_000_000, 30));
+
+        cache[0].get("alice");
+        cache[0].get("alice");
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void invalidTokenLeavesRequestAnonymous() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, principalCache, tokenVersionRegistry);
+
+        assertNull(authenticate(filter, token.substring(0, token.length() - 2) + "xx"));
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void statelessModeAuthorizesFromClaimsAndHonoursTokenVersion() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, principalCache, tokenVersionRegistry);
+        ReflectionTestUtils.setField(filter, "statelessClaims", true);
+        String claimsToken = jwtUtil.generateToken(new UserPrincipal(42L, "bob", "x", Users.Role.ADMIN, 3));
+        tokenVersionRegistry.update(42L, 3);
+
+        Authentication authentication = authenticate(filter, claimsToken);
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertEquals(42L, principal.getId());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
+        assertEquals(0, lookups.get());
+
+        tokenVersionRegistry.update(42L, 4);
+        assertNull(authenticate(filter, claimsToken));
+
+        // Tokens without embedded claims still authenticate through the principal cache
+        assertNotNull(authenticate(filter, token));
+        assertEquals(1, lookups.get());
+    }
+
+    /**
+     * Auth overhead per request with and without the principal cache. Opt-in:
+     * {@code mvn test -Dbenchmark=true -Dtest=JwtAuthenticationFilterTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void authOverheadBenchmark() throws Exception {
+        int requests = 20_000;
+        JwtAuthenticationFilter cached = new JwtAuthenticationFilter(jwtUtil, principalCache, tokenVersionRegistry);
+        // Zero-size cache: every request loads the principal, as before the cache existed
+        PrincipalCache uncachedPrincipals = new PrincipalCache(username -> {
+            lookups.incrementAndGet();
+            sleepMicros(200);
+            return User.withUsername(username).password("x").roles("USER").build();
+        }, new CacheConfig().cacheManager(100, 300, 0, 60, 1_000_000, 30));
+        JwtAuthenticationFilter uncached = new JwtAuthenticationFilter(jwtUtil, uncachedPrincipals, tokenVersionRegistry);
+
+        for (JwtAuthenticationFilter filter : new JwtAuthenticationFilter[]{cached, uncached, cached, uncached}) {
+            lookups.set(0);
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                authenticate(filter, token);
+            }
+            double micros = (System.nanoTime() - start) / 1e3 / requests;
+            System.out.printf("%s: %.1f us/request, %d user lookups%n",
+                    filter == cached ? "cached" : "uncached (200us lookup)", micros, lookups.get());
+        }
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String jwt) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/submissions/1");
+        request.setServletPath("/api/submissions/1");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static void sleepMicros(long micros) {
+        long end = System.nanoTime() + micros * 1_000;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
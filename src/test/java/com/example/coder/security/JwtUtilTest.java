@@ -0,0 +1,56 @@
+package com.example.coder.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final String OLD_SECRET = "b2xkLXNlY3JldC1vbGQtc2VjcmV0LW9sZC1zZWNyZXQtMDE=";
+    private static final String NEW_SECRET = "bmV3LXNlY3JldC1uZXctc2VjcmV0LW5ldy1zZWNyZXQtMDI=";
+
+    private final UserDetails alice = User.withUsername("alice").password("x").roles("USER").build();
+
+    @Test
+    void tokensSignedWithRetiredKeyStayValidAfterRotation() {
+        String oldToken = new JwtUtil(OLD_SECRET, "k1", "", 60_000L).generateToken(alice);
+
+        JwtUtil rotated = new JwtUtil(NEW_SECRET, "k2", "k1:" + OLD_SECRET, 60_000L);
+
+        assertEquals("alice", rotated.parseClaims(oldToken).getSubject());
+        assertEquals("alice", rotated.parseClaims(rotated.generateToken(alice)).getSubject());
+    }
+
+    @Test
+    void tokensFromDroppedOrUnknownKeysAreRejected() {
+        String oldToken = new JwtUtil(OLD_SECRET, "k1", "", 60_000L).generateToken(alice);
+        String unknownKid = new JwtUtil(OLD_SECRET, "k9", "", 60_000L).generateToken(alice);
+
+        JwtUtil rotated = new JwtUtil(NEW_SECRET, "k2", "", 60_000L);
+
+        assertFalse(rotated.isTokenValid(oldToken));
+        assertFalse(rotated.isTokenValid(unknownKid));
+    }
+
+    @Test
+    void tokensWithoutKidAreCheckedAgainstTheCurrentKey() {
+        String legacy = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(NEW_SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertTrue(new JwtUtil(NEW_SECRET, "k2", "", 60_000L).isTokenValid(legacy));
+        assertFalse(new JwtUtil(OLD_SECRET, "k1", "", 60_000L).isTokenValid(legacy));
+    }
+}
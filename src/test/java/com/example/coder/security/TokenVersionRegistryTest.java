@@ -0,0 +1,90 @@
+package com.example.coder.security;
+
+import com.example.coder.events.UserChangedEvent;
+import com.example.coder.repo.UsersRepo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+
+    private final UsersRepo usersRepo = mock(UsersRepo.class);
+    private final TokenVersionRegistry registry = new TokenVersionRegistry(usersRepo, true);
+
+    @Test
+    void loadedVersionsDecideWhichTokensAreCurrent() {
+        load(version(1L, 0), version(2L, 3));
+        registry.load();
+
+        assertTrue(registry.isCurrent(1L, 0));
+        assertTrue(registry.isCurrent(2L, 3));
+        assertFalse(registry.isCurrent(2L, 2));
+        // Not in the table when it was read, so created since
+        assertTrue(registry.isCurrent(5L, 0));
+    }
+
+    @Test
+    void refreshThatReadTheTableBeforeACommittedChangeKeepsTheNewerVersion() {
+        load(version(1L, 0));
+        registry.load();
+
+        registry.onUserChanged(new UserChangedEvent(1L, 1));
+        registry.refresh();
+
+        assertTrue(registry.isCurrent(1L, 1));
+        assertFalse(registry.isCurrent(1L, 0));
+    }
+
+    @Test
+    void deletedUserStaysRevokedAcrossRefreshes() {
+        load(version(1L, 0), version(2L, 0));
+        registry.load();
+
+        registry.onUserChanged(UserChangedEvent.deleted(1L));
+        assertFalse(registry.isCurrent(1L, 0));
+
+        // Read before the delete committed
+        registry.refresh();
+        assertFalse(registry.isCurrent(1L, 0));
+
+        load(version(2L, 0));
+        registry.refresh();
+        assertFalse(registry.isCurrent(1L, 0));
+        assertTrue(registry.isCurrent(2L, 0));
+    }
+
+    @Test
+    void userCreatedAndDeletedBetweenRefreshesIsRevoked() {
+        load(version(1L, 0));
+        registry.load();
+
+        registry.revoke(7L);
+
+        assertFalse(registry.isCurrent(7L, 0));
+        assertTrue(registry.isCurrent(8L, 0));
+    }
+
+    @Test
+    void disabledRegistryNeverQueries() {
+        new TokenVersionRegistry(usersRepo, false).load();
+
+        verifyNoInteractions(usersRepo);
+    }
+
+    private void load(UsersRepo.TokenVersionView... views) {
+        when(usersRepo.findAllTokenVersions()).thenReturn(Arrays.asList(views));
+    }
+
+    private static UsersRepo.TokenVersionView version(Long id, int tokenVersion) {
+        UsersRepo.TokenVersionView view = mock(UsersRepo.TokenVersionView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTokenVersion()).thenReturn(tokenVersion);
+        return view;
+    }
+}
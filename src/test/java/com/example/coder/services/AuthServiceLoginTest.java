@@ -0,0 +1,134 @@
+package com.example.coder.services;
+
+import com.example.coder.DTOs.LoginRequestDTO;
+import com.example.coder.DTOs.LoginResponseDTO;
+import com.example.coder.model.Users;
+import com.example.coder.repo.UsersRepo;
+import com.example.coder.security.JwtUtil;
+import com.example.coder.security.PasswordHasher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceLoginTest {
+
+    private final UsersRepo usersRepo = mock(UsersRepo.class);
+    private final JwtUtil jwtUtil = new JwtUtil("mySecretKey123456789012345678901234567890123", "k1", "", 60_000L);
+
+    @Test
+    void loginFetchesTheUserOnceAndUpgradesLegacyHashes() {
+        PasswordEncoder encoder = encoder(5);
+        // Stored before the {bcrypt} prefix existed, at a lower cost
+        Users alice = user(1L, "alice", new BCryptPasswordEncoder(4).encode("secret"));
+        when(usersRepo.findByUsername("alice")).thenReturn(Optional.of(alice));
+
+        LoginResponseDTO response = authService(encoder, 2).login(login("alice", "secret")).join();
+
+        assertNotNull(response.getToken());
+        assertEquals(1L, jwtUtil.parseClaims(response.getToken()).get("uid", Number.class).longValue());
+        verify(usersRepo, times(1)).findByUsername("alice");
+        verify(usersRepo).updatePassword(eq(1L), startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void wrongPasswordAndUnknownUserAreRejected() {
+        PasswordEncoder encoder = encoder(4);
+        when(usersRepo.findByUsername("alice")).thenReturn(Optional.of(user(1L, "alice", encoder.encode("secret"))));
+        when(usersRepo.findByUsername("mallory")).thenReturn(Optional.empty());
+        AuthService authService = authService(encoder, 2);
+
+        CompletionException wrongPassword = assertThrows(CompletionException.class,
+                () -> authService.login(login("alice", "nope")).join());
+        CompletionException unknownUser = assertThrows(CompletionException.class,
+                () -> authService.login(login("mallory", "secret")).join());
+
+        assertInstanceOf(BadCredentialsException.class, wrongPassword.getCause());
+        assertInstanceOf(BadCredentialsException.class, unknownUser.getCause());
+        verify(usersRepo, never()).updatePassword(anyLong(), anyString());
+    }
+
+    /**
+     * Login throughput at bcrypt cost 10 with a burst of concurrent logins. Opt-in:
+     * {@code mvn test -Dbenchmark=true -Dtest=AuthServiceLoginTest}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void loginThroughputAtCostTen() {
+        PasswordEncoder encoder = encoder(10);
+        when(usersRepo.findByUsername(any())).thenReturn(Optional.of(user(1L, "alice", encoder.encode("secret"))));
+        int threads = Runtime.getRuntime().availableProcessors();
+        int logins = 200;
+        AuthService authService = authService(encoder, threads, logins);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<LoginResponseDTO>> pending = new ArrayList<>(logins);
+        for (int i = 0; i < logins; i++) {
+            pending.add(authService.login(login("alice", "secret")));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("bcrypt cost 10, %d hashing threads: %d logins in %.2fs = %.1f logins/s%n",
+                threads, logins, seconds, logins / seconds);
+        assertTrue(pending.stream().allMatch(future -> future.join().getToken() != null));
+    }
+
+    private AuthService authService(PasswordEncoder encoder, int threads) {
+        return authService(encoder, threads, 16);
+    }
+
+    private AuthService authService(PasswordEncoder encoder, int threads, int queueCapacity) {
+        PasswordHasher passwordHasher = new PasswordHasher(encoder, threads, queueCapacity);
+        return new AuthService(usersRepo, passwordHasher, jwtUtil);
+    }
+
+    private static PasswordEncoder encoder(int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
+    }
+
+    private static Users user(Long id, String username, String hash) {
+        Users user = new Users();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword(hash);
+        user.setEmail(username + "@example.com");
+        user.setRole(Users.Role.USER);
+        return user;
+    }
+
+    private static LoginRequestDTO login(String username, String password) {
+        LoginRequestDTO request = new LoginRequestDTO();
+        request.setUsername(username);
+        request.setPassword(password);
+        return request;
+    }
+}
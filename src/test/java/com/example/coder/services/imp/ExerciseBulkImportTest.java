@@ -0,0 +1,139 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.DTOs.BulkImportResultDTO;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Topic;
+import com.example.coder.repo.ExerciseExportRepo;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.services.TopicService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExerciseBulkImportTest {
+
+    private ExercisesRepo exercisesRepo;
+    private ExerciseExportRepo exportRepo;
+    private ExerciseBulkServiceImp service;
+
+    @BeforeEach
+    void setUp() {
+        exercisesRepo = mock(ExercisesRepo.class);
+        exportRepo = mock(ExerciseExportRepo.class);
+        TopicService topicService = mock(TopicService.class);
+        when(exercisesRepo.findAllTitlesLowerCase()).thenReturn(List.of("two sum"));
+        when(topicService.resolveTopics(any())).thenReturn(Set.of(new Topic(1L, "Array", "array", 0)));
+
+        service = new ExerciseBulkServiceImp(exercisesRepo, exportRepo, topicService,
+                mock(ApplicationEventPublisher.class), mock(PlatformTransactionManager.class),
+                new ObjectMapper().findAndRegisterModules(), 2);
+    }
+
+    @Test
+    void importsValidItemsInBatchesAndReportsTheRest() {
+        String ndjson = String.join("\n",
+                "{\"title\":\"Binary Search\",\"description\":\"Find it\",\"topics\":\"array\"}",
+                "{\"title\":\"Two Sum\",\"description\":\"Already there\"}",
+                "{\"title\":\"Max\",\"description\":\"Largest\",\"difficulty\":\"impossible\"}",
+                "{\"title\":\"binary search\",\"description\":\"Duplicate in the payload\"}",
+                "{\"title\":\"Min\",\"description\":\"Smallest\"}",
+                "{\"title\":\"\",\"description\":\"No title\"}",
+                "{\"title\":\"Sum\",\"description\":\"Add\"}");
+
+        // The service clears and reuses its batch list, so keep a copy of each batch
+        List<List<Exercises>> batches = new ArrayList<>();
+        doAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<List<Exercises>>getArgument(0)));
+            return null;
+        }).when(exercisesRepo).saveAll(any());
+
+        BulkImportResultDTO result = service.importExercises(stream(ndjson)).getBody();
+
+        assertEquals(7, result.getReceived());
+        assertEquals(3, result.getImported());
+        assertEquals(List.of(1, 2, 3, 5), result.getErrors().stream().map(BulkImportResultDTO.ItemError::getIndex).toList());
+        assertEquals("Exercise title already exists", result.getErrors().get(0).getMessage());
+
+        assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+        assertEquals("Array", batches.get(0).get(0).getTopics());
+    }
+
+    @Test
+    void acceptsJsonArrayAndStopsAtMalformedJson() {
+        String json = "[{\"title\":\"A\",\"description\":\"a\"}, {\"title\": oops}]";
+
+        BulkImportResultDTO result = service.importExercises(stream(json)).getBody();
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+    }
+
+    @Test
+    void bodyEndingEarlyReportsWhatWasImported() {
+        String ndjson = String.join("\n",
+                "{\"title\":\"A\",\"description\":\"a\"}",
+                "{\"title\":\"B\",\"description\":\"b\"}",
+                "{\"title\":\"C\",\"description\":\"c\"}",
+                "{\"title\":\"D\",");
+        InputStream cutOff = new SequenceInputStream(stream(ndjson), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        BulkImportResultDTO result = service.importExercises(cutOff).getBody();
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getIndex());
+        assertTrue(result.getErrors().get(0).getMessage().contains("Connection reset"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportWritesOneLinePerExerciseThatImportsBack() {
+        doAnswer(invocation -> {
+            Consumer<Exercises> consumer = invocation.getArgument(0);
+            for (String title : new String[]{"A", "B"}) {
+                Exercises exercise = new Exercises();
+                exercise.setTitle(title);
+                exercise.setDescription("Exported " + title);
+                consumer.accept(exercise);
+            }
+            return null;
+        }).when(exportRepo).forEach(any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportExercises(out, true);
+
+        String exported = out.toString(StandardCharsets.UTF_8);
+        assertEquals(2, exported.split("\n").length);
+        assertEquals(2, service.importExercises(stream(exported)).getBody().getImported());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
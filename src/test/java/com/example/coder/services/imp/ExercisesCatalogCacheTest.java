@@ -0,0 +1,78 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.DTOs.CacheStatsDTO;
+import com.example.coder.config.CacheConfig;
+import com.example.coder.config.ExerciseCacheEvictor;
+import com.example.coder.events.ExerciseChangedEvent;
+import com.example.coder.model.Exercises;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.search.ExerciseSearchIndex;
+import com.example.coder.services.ExcercisesService;
+import com.example.coder.services.TopicService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, ExerciseCacheEvictor.class, ExercisesServiceImp.class})
+class ExercisesCatalogCacheTest {
+
+    @Autowired
+    private ExcercisesService exercisesService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockitoBean
+    private ExercisesRepo exercisesRepo;
+
+    @MockitoBean
+    private ExerciseSearchIndex searchIndex;
+
+    @MockitoBean
+    private TopicService topicService;
+
+    @Test
+    void readsAreServedFromCacheUntilTheExerciseChanges() {
+        Exercises exercise = new Exercises();
+        exercise.setId(7L);
+        exercise.setTitle("Two Sum");
+        when(exercisesRepo.findById(7L)).thenReturn(Optional.of(exercise));
+        when(exercisesRepo.findAllByOrderByCreatedAtDesc()).thenReturn(List.of(exercise));
+
+        for (int i = 0; i < 3; i++) {
+            exercisesService.getExerciseById(7L);
+            exercisesService.getAllExercises();
+        }
+        verify(exercisesRepo, times(1)).findById(7L);
+        verify(exercisesRepo, times(1)).findAllByOrderByCreatedAtDesc();
+
+        // The cache holds a copy, so changes to the loaded entity do not leak into it
+        exercise.setTitle("Changed");
+        assertEquals("Two Sum", exercisesService.getExerciseById(7L).getBody().getTitle());
+        assertEquals("Two Sum", exercisesService.getAllExercises().getBody().get(0).getTitle());
+
+        eventPublisher.publishEvent(ExerciseChangedEvent.saved(exercise));
+        exercisesService.getExerciseById(7L);
+        exercisesService.getAllExercises();
+
+        verify(exercisesRepo, times(2)).findById(7L);
+        verify(exercisesRepo, times(2)).findAllByOrderByCreatedAtDesc();
+
+        CacheStatsDTO byId = exercisesService.getCacheStats().getBody().stream()
+                .filter(stats -> stats.getName().equals(CacheConfig.EXERCISE_BY_ID))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(3, byId.getHitCount());
+        assertEquals(2, byId.getMissCount());
+    }
+}
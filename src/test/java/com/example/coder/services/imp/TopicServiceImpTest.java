@@ -0,0 +1,85 @@
+package com.example.coder.services.imp;
+
+import com.example.coder.EmbeddedMariaDB;
+import com.example.coder.model.Topic;
+import com.example.coder.repo.TopicRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against MariaDB, since the race depends on its REPEATABLE READ snapshots and on the
+ * unique slug index.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TopicServiceImp.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TopicServiceImpTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDB.register(registry, "topic_service_test");
+    }
+
+    @Autowired
+    private TopicServiceImp topicService;
+    @Autowired
+    private TopicRepo topicRepo;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        jdbc.update("DELETE FROM topics");
+    }
+
+    @Test
+    void topicCreatedByAnotherTransactionIsReused() {
+        Set<Topic> topics = transaction.execute(status -> {
+            // Takes this transaction's snapshot before the other writer commits
+            assertTrue(topicRepo.findBySlugIn(List.of("graph")).isEmpty());
+            CompletableFuture.runAsync(() -> transaction.executeWithoutResult(
+                    other -> topicService.resolveTopics(List.of("Graph")))).orTimeout(10, TimeUnit.SECONDS).join();
+
+            return topicService.resolveTopics(List.of("graph", "Dynamic Programming"));
+        });
+
+        assertEquals(2, topics.size());
+        assertEquals(2, topicRepo.count());
+        assertEquals(Set.of("Graph", "Dynamic Programming"),
+                Set.copyOf(topics.stream().map(Topic::getName).toList()));
+    }
+
+    @Test
+    void existingTopicsAreNotInsertedAgain() {
+        transaction.executeWithoutResult(status -> topicService.resolveTopics(List.of("Graph", "Tree")));
+        Set<Topic> topics = transaction.execute(status -> topicService.resolveTopics(List.of(" tree ", "GRAPH")));
+
+        assertEquals(2, topics.size());
+        assertEquals(2, topicRepo.count());
+    }
+}
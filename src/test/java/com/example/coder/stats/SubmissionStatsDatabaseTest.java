@@ -0,0 +1,203 @@
+package com.example.coder.stats;
+
+import com.example.coder.EmbeddedMariaDB;
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.model.UserStats;
+import com.example.coder.model.Users;
+import com.example.coder.repo.ExercisesRepo;
+import com.example.coder.repo.LanguageStatsRepo;
+import com.example.coder.repo.LanguagesRepo;
+import com.example.coder.repo.SubmissionRepo;
+import com.example.coder.repo.UserStatsRepo;
+import com.example.coder.repo.UsersRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the counter upserts and the reconciliation against MariaDB, since they use
+ * ON DUPLICATE KEY UPDATE and depend on InnoDB locking.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SubmissionStats.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubmissionStatsDatabaseTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedMariaDB.register(registry, "submission_stats_test");
+    }
+
+    @Autowired
+    private SubmissionStats stats;
+    @Autowired
+    private SubmissionRepo submissionRepo;
+    @Autowired
+    private UserStatsRepo userStatsRepo;
+    @Autowired
+    private LanguageStatsRepo languageStatsRepo;
+    @Autowired
+    private UsersRepo usersRepo;
+    @Autowired
+    private ExercisesRepo exercisesRepo;
+    @Autowired
+    private LanguagesRepo languagesRepo;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Users user;
+    private Exercises exercise;
+    private Languages language;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        jdbc.update("DELETE FROM submissions");
+        jdbc.update("DELETE FROM user_stats");
+        jdbc.update("DELETE FROM language_stats");
+
+        user = new Users();
+        user.setUsername("stats-user-" + System.nanoTime());
+        user.setPassword("secret");
+        user = usersRepo.save(user);
+
+        exercise = new Exercises();
+        exercise.setTitle("Echo");
+        exercise.setDescription("Print the input");
+        exercise = exercisesRepo.save(exercise);
+
+        language = new Languages();
+        language.setName("Python");
+        language.setCode(71);
+        language = languagesRepo.save(language);
+    }
+
+    @Test
+    void deltasAccumulateThroughTheUpsert() {
+        Submission first = submit();
+        Submission second = submit();
+
+        transaction.executeWithoutResult(status -> stats.recordStatusChanges(Map.of(
+                first, Submission.Status.SUCCESS,
+                second, Submission.Status.SUCCESS)));
+
+        UserStats counts = userStatsRepo.findById(user.getId()).orElseThrow();
+        assertEquals(0, counts.getPendingCount());
+        assertEquals(2, counts.getSuccessCount());
+        // Both solve the same exercise
+        assertEquals(1, counts.getSolvedExercises());
+    }
+
+    @Test
+    void reconcileRepairsDriftAndDropsRowsWithoutSubmissions() {
+        submit();
+        jdbc.update("UPDATE user_stats SET pending_count = 7, solved_exercises = 3");
+        jdbc.update("INSERT INTO user_stats (user_id, pending_count, success_count, fail_count, error_count, " +
+                "solved_exercises) VALUES (?, 1, 0, 0, 0, 0)", user.getId() + 1000);
+
+        stats.reconcile();
+
+        UserStats counts = userStatsRepo.findById(user.getId()).orElseThrow();
+        assertEquals(1, counts.getPendingCount());
+        assertEquals(0, counts.getSolvedExercises());
+        assertEquals(1, userStatsRepo.count());
+        assertEquals(1, jdbc.queryForObject("SELECT pending_count FROM language_stats WHERE language_id = ?",
+                Long.class, language.getId()));
+    }
+
+    @Test
+    void reconcileDoesNotWaitForRowsLockedByAWriter() throws Exception {
+        Submission submission = submit();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            jdbc.update("UPDATE submissions SET status = 'FAIL' WHERE id = ?", submission.getId());
+            locked.countDown();
+            await(commit);
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        // Under REPEATABLE READ this would wait for the writer's row lock
+        CompletableFuture.runAsync(stats::reconcile).get(10, TimeUnit.SECONDS);
+        commit.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+
+        // Reconciled from the last committed state
+        assertEquals(1, userStatsRepo.findById(user.getId()).orElseThrow().getPendingCount());
+    }
+
+    @Test
+    void deltaCommittedDuringReconcileIsKept() throws Exception {
+        Submission submission = submit();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        // Holds the counter rows, so reconcile takes its snapshot and then waits to write them
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            jdbc.update("UPDATE submissions SET status = 'FAIL' WHERE id = ?", submission.getId());
+            userStatsRepo.addCounts(user.getId(), -1, 0, 1, 0, 0);
+            languageStatsRepo.addCounts(language.getId(), -1, 0, 1, 0);
+            locked.countDown();
+            await(commit);
+        }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(stats::reconcile);
+        Thread.sleep(500);
+        commit.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        reconcile.get(10, TimeUnit.SECONDS);
+
+        UserStats counts = userStatsRepo.findById(user.getId()).orElseThrow();
+        assertEquals(0, counts.getPendingCount());
+        assertEquals(1, counts.getFailCount());
+        assertEquals(1, jdbc.queryForObject("SELECT fail_count FROM language_stats WHERE language_id = ?",
+                Long.class, language.getId()));
+    }
+
+    private Submission submit() {
+        return transaction.execute(status -> {
+            Submission submission = new Submission();
+            submission.setUser(user);
+            submission.setExercise(exercise);
+            submission.setLanguage(language);
+            submission.setSourceCode("print(1)");
+            submission = submissionRepo.save(submission);
+            stats.recordCreated(submission);
+            return submission;
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
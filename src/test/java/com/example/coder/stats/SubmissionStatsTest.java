@@ -0,0 +1,111 @@
+package com.example.coder.stats;
+
+import com.example.coder.model.Exercises;
+import com.example.coder.model.Languages;
+import com.example.coder.model.Submission;
+import com.example.coder.model.Users;
+import com.example.coder.repo.LanguageStatsRepo;
+import com.example.coder.repo.SubmissionRepo;
+import com.example.coder.repo.UserStatsRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubmissionStatsTest {
+
+    private UserStatsRepo userStatsRepo;
+    private LanguageStatsRepo languageStatsRepo;
+    private SubmissionRepo submissionRepo;
+    private SubmissionStats stats;
+
+    @BeforeEach
+    void setUp() {
+        userStatsRepo = mock(UserStatsRepo.class);
+        languageStatsRepo = mock(LanguageStatsRepo.class);
+        submissionRepo = mock(SubmissionRepo.class);
+        stats = new SubmissionStats(userStatsRepo, languageStatsRepo, submissionRepo);
+    }
+
+    @Test
+    void createCountsOnePending() {
+        stats.recordCreated(submission(Submission.Status.PENDING));
+
+        verify(userStatsRepo).addCounts(1L, 1, 0, 0, 0, 0);
+        verify(languageStatsRepo).addCounts(3L, 1, 0, 0, 0);
+    }
+
+    @Test
+    void firstSuccessOnAnExerciseCountsAsSolved() {
+        when(submissionRepo.existsByUserIdAndExerciseIdAndStatusAndIdNot(1L, 2L, Submission.Status.SUCCESS, 10L))
+                .thenReturn(false);
+
+        stats.recordStatusChange(submission(Submission.Status.PENDING), Submission.Status.SUCCESS);
+
+        verify(userStatsRepo).addCounts(1L, -1, 1, 0, 0, 1);
+        verify(languageStatsRepo).addCounts(3L, -1, 1, 0, 0);
+    }
+
+    @Test
+    void repeatedSuccessAndUnchangedStatusDoNotCountAsSolved() {
+        when(submissionRepo.existsByUserIdAndExerciseIdAndStatusAndIdNot(1L, 2L, Submission.Status.SUCCESS, 10L))
+                .thenReturn(true);
+
+        stats.recordStatusChange(submission(Submission.Status.PENDING), Submission.Status.SUCCESS);
+        stats.recordStatusChange(submission(Submission.Status.FAIL), Submission.Status.FAIL);
+
+        verify(userStatsRepo).addCounts(1L, -1, 1, 0, 0, 0);
+        verify(userStatsRepo, times(1)).addCounts(anyLong(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void batchCountsEachNewlySolvedExerciseOnce() {
+        Submission first = submission(Submission.Status.PENDING);
+        Submission second = submission(Submission.Status.PENDING);
+        second.setId(11L);
+        Map<Submission, Submission.Status> verdicts = new LinkedHashMap<>();
+        verdicts.put(first, Submission.Status.SUCCESS);
+        verdicts.put(second, Submission.Status.SUCCESS);
+
+        stats.recordStatusChanges(verdicts);
+
+        verify(userStatsRepo).addCounts(1L, -2, 2, 0, 0, 1);
+        verify(languageStatsRepo).addCounts(3L, -2, 2, 0, 0);
+    }
+
+    @Test
+    void deletingTheOnlySuccessUnsolvesTheExercise() {
+        when(submissionRepo.existsByUserIdAndExerciseIdAndStatusAndIdNot(1L, 2L, Submission.Status.SUCCESS, 10L))
+                .thenReturn(false);
+
+        stats.recordDeleted(submission(Submission.Status.SUCCESS));
+
+        verify(userStatsRepo).addCounts(1L, 0, -1, 0, 0, -1);
+        verify(languageStatsRepo).addCounts(3L, 0, -1, 0, 0);
+    }
+
+    private static Submission submission(Submission.Status status) {
+        Users user = new Users();
+        user.setId(1L);
+        Exercises exercise = new Exercises();
+        exercise.setId(2L);
+        Languages language = new Languages();
+        language.setId(3L);
+
+        Submission submission = new Submission();
+        submission.setId(10L);
+        submission.setUser(user);
+        submission.setExercise(exercise);
+        submission.setLanguage(language);
+        submission.setStatus(status);
+        return submission;
+    }
+}